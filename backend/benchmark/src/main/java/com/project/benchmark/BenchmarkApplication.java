@@ -0,0 +1,224 @@
+package com.project.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.benchmark.model.EndToEndResult;
+import com.project.benchmark.model.LatencySummary;
+import com.project.benchmark.model.StormResult;
+import com.project.benchmark.service.EndToEndBenchmark;
+import com.project.benchmark.service.LocalStack;
+import com.project.benchmark.service.VoteStorm;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+
+/**
+ * Command-line benchmarks for the voting services.
+ *
+ * {@code --mode=storm} (the default) raises the number of concurrent voters
+ * step by step against a running publisher and reports accepted votes per
+ * second and request latency at each step. The highest step whose p99 stays
+ * within {@code --slo-p99} with under 1% errors is reported as the capacity.
+ * Run it once against a publisher started with spring.threads.virtual.enabled=false
+ * and once with true, using {@code --label} and {@code --csv} to line the two up.
+ *
+ * {@code --mode=e2e} sends votes at a fixed {@code --rate} and follows them
+ * into the subscriber, reporting publish and end-to-end latency, throughput
+ * and lost votes. With {@code --local-stack} it first starts an embedded
+ * Kafka (build with -Pembedded-kafka) and the service jars named by
+ * {@code --coordinator-jar}, {@code --publisher-jar} and {@code --subscriber-jar},
+ * so a whole run needs nothing but a JDK.
+ */
+public class BenchmarkApplication {
+
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkOptions options = new BenchmarkOptions(args);
+        String mode = options.getString("mode", "storm");
+        switch (mode) {
+            case "storm" -> runStorm(options);
+            case "e2e" -> runEndToEnd(options);
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+    }
+
+    private static void runStorm(BenchmarkOptions options) throws InterruptedException, IOException {
+        String publisherUrl = options.getString("publisher-url", "http://localhost:8081");
+        List<Integer> steps = options.getIntList("clients", "50,200,500,1000,2000");
+        Duration warmup = options.getDuration("warmup", Duration.ofSeconds(5));
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(20));
+        Duration sloP99 = options.getDuration("slo-p99", Duration.ofMillis(250));
+        String label = options.getString("label", "run");
+        String csv = options.getString("csv", null);
+
+        HttpClient httpClient = httpClient();
+        VoteStorm storm = new VoteStorm(httpClient,
+                publisherUrl,
+                options.getList("topics", "Candidate_1,Candidate_2"),
+                options.getList("candidates", "Alice,Bob,Carol"),
+                options.getBoolean("voter-ids", true),
+                options.getDuration("timeout", Duration.ofSeconds(10)));
+
+        System.out.println("Vote storm against " + publisherUrl + " (" + label + "), "
+                + warmup.toSeconds() + "s warmup + " + duration.toSeconds() + "s per step");
+        System.out.println(String.format(Locale.ROOT, "%-10s %8s %10s %10s %8s %9s %9s %9s %9s  %s",
+                "label", "clients", "requests", "votes/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms", "statuses"));
+
+        List<StormResult> results = new ArrayList<>();
+        for (int clients : steps) {
+            StormResult result = storm.run(clients, warmup, duration);
+            results.add(result);
+            String row = row(label, result);
+            System.out.println(row);
+            if (csv != null) {
+                appendCsv(Paths.get(csv), label, result);
+            }
+        }
+
+        StormResult capacity = null;
+        for (StormResult result : results) {
+            if (result.getLatency().percentile(99) <= sloP99.toMillis() && result.getErrorRate() < MAX_ERROR_RATE) {
+                capacity = result;
+            }
+        }
+        if (capacity == null) {
+            System.out.println("No step met p99 <= " + sloP99.toMillis() + " ms with under 1% errors");
+        } else {
+            System.out.println(String.format(Locale.ROOT,
+                    "Capacity (%s): %d concurrent clients at %.0f votes/s with p99 %.1f ms",
+                    label, capacity.getClients(), capacity.getThroughput(), capacity.getLatency().percentile(99)));
+        }
+    }
+
+    private static void runEndToEnd(BenchmarkOptions options) throws Exception {
+        double rate = options.getDouble("rate", 1000);
+        int pollCount = options.getInt("polls", 4);
+        Duration duration = options.getDuration("duration", Duration.ofSeconds(30));
+        String label = options.getString("label", "run");
+        String csv = options.getString("csv", null);
+        List<String> polls = new ArrayList<>(pollCount);
+        for (int i = 1; i <= pollCount; i++) {
+            polls.add("bench-poll-" + i);
+        }
+
+        HttpClient httpClient = httpClient();
+        try (LocalStack stack = new LocalStack(httpClient, Paths.get("target", "local-stack"))) {
+            String publisherUrl = options.getString("publisher-url", "http://localhost:8081");
+            String subscriberUrl = options.getString("subscriber-url", "http://localhost:8082");
+            if (options.getBoolean("local-stack", false)) {
+                if (options.getString("publisher-jar", null) == null || options.getString("subscriber-jar", null) == null) {
+                    throw new IllegalArgumentException("--local-stack needs --publisher-jar and --subscriber-jar");
+                }
+                Runtime.getRuntime().addShutdownHook(new Thread(stack::close));
+                stack.startKafka(options.getInt("partitions", 3), polls);
+                Duration startup = options.getDuration("startup-timeout", Duration.ofSeconds(90));
+                String coordinatorUrl = "http://localhost:18080";
+                String coordinatorJar = options.getString("coordinator-jar", null);
+                if (coordinatorJar != null) {
+                    coordinatorUrl = stack.startService("coordinator", coordinatorJar, 18080, List.of(), startup);
+                }
+                publisherUrl = stack.startService("publisher", options.getString("publisher-jar", null), 18081,
+                        List.of("--coordinator.url=" + coordinatorUrl,
+                                "--publisher.admission.enabled=false"),
+                        startup);
+                subscriberUrl = stack.startService("subscriber", options.getString("subscriber-jar", null), 18082,
+                        List.of("--coordinator.url=" + coordinatorUrl,
+                                "--subscriber.checkpoint.enabled=false",
+                                "--subscriber.retention.defaults.max-messages=1000000"),
+                        startup);
+            }
+
+            EndToEndBenchmark benchmark = new EndToEndBenchmark(httpClient,
+                    new ObjectMapper(),
+                    publisherUrl,
+                    subscriberUrl,
+                    polls,
+                    options.getDouble("poll-skew", 1.0),
+                    options.getList("candidates", "Alice,Bob,Carol,Dave,Erin"),
+                    options.getDouble("candidate-skew", 0.8),
+                    options.getInt("batch-size", 1),
+                    options.getDuration("timeout", Duration.ofSeconds(10)),
+                    options.getDuration("observe-interval", Duration.ofMillis(20)));
+
+            System.out.println("End-to-end run against " + publisherUrl + " -> " + subscriberUrl + " (" + label + "), "
+                    + rate + " votes/s over " + pollCount + " polls for " + duration.toSeconds() + "s");
+            EndToEndResult result = benchmark.run(rate,
+                    duration,
+                    options.getDuration("drain-timeout", Duration.ofSeconds(30)),
+                    options.getDuration("prime-timeout", Duration.ofSeconds(60)));
+            report(label, result);
+            if (csv != null) {
+                appendCsv(Paths.get(csv), label, result);
+            }
+        }
+    }
+
+    private static HttpClient httpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    private static void report(String label, EndToEndResult result) {
+        LatencySummary publish = result.getPublishLatency();
+        LatencySummary endToEnd = result.getEndToEndLatency();
+        System.out.println(String.format(Locale.ROOT, "%-10s %10s %10s %10s %10s %8s",
+                "label", "target/s", "sent/s", "sent", "observed", "errors"));
+        System.out.println(String.format(Locale.ROOT, "%-10s %10.0f %10.0f %10d %10d %7.2f%%",
+                label, result.getTargetRate(), result.getSentRate(), result.getSent(), result.getObserved(),
+                result.getErrorRate() * 100));
+        System.out.println(String.format(Locale.ROOT, "%-10s %9s %9s %9s %9s",
+                "latency", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        System.out.println(String.format(Locale.ROOT, "%-10s %9.1f %9.1f %9.1f %9.1f", "publish",
+                publish.percentile(50), publish.percentile(99), publish.percentile(99.9), publish.getMax()));
+        System.out.println(String.format(Locale.ROOT, "%-10s %9.1f %9.1f %9.1f %9.1f", "end-to-end",
+                endToEnd.percentile(50), endToEnd.percentile(99), endToEnd.percentile(99.9), endToEnd.getMax()));
+        System.out.println("Rejected: " + result.getRejected() + ", missing: " + result.getMissing()
+                + ", statuses: " + result.getStatusCounts());
+    }
+
+    private static void appendCsv(Path file, String label, EndToEndResult result) throws IOException {
+        if (!Files.exists(file)) {
+            Files.writeString(file, "label,target_per_s,sent_per_s,sent,observed,rejected,missing,error_rate,"
+                    + "publish_p50_ms,publish_p99_ms,publish_p999_ms,e2e_p50_ms,e2e_p99_ms,e2e_p999_ms,e2e_max_ms\n");
+        }
+        LatencySummary publish = result.getPublishLatency();
+        LatencySummary endToEnd = result.getEndToEndLatency();
+        String line = String.format(Locale.ROOT, "%s,%.0f,%.1f,%d,%d,%d,%d,%.4f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                label, result.getTargetRate(), result.getSentRate(), result.getSent(), result.getObserved(),
+                result.getRejected(), result.getMissing(), result.getErrorRate(),
+                publish.percentile(50), publish.percentile(99), publish.percentile(99.9),
+                endToEnd.percentile(50), endToEnd.percentile(99), endToEnd.percentile(99.9), endToEnd.getMax());
+        Files.writeString(file, line, StandardOpenOption.APPEND);
+    }
+
+    private static String row(String label, StormResult result) {
+        LatencySummary latency = result.getLatency();
+        return String.format(Locale.ROOT, "%-10s %8d %10d %10.0f %7.2f%% %9.1f %9.1f %9.1f %9.1f  %s",
+                label, result.getClients(), result.getRequests(), result.getThroughput(), result.getErrorRate() * 100,
+                latency.percentile(50), latency.percentile(99), latency.percentile(99.9), latency.getMax(),
+                result.getStatusCounts());
+    }
+
+    private static void appendCsv(Path file, String label, StormResult result) throws IOException {
+        if (!Files.exists(file)) {
+            Files.writeString(file, "label,clients,requests,votes_per_s,error_rate,p50_ms,p99_ms,p999_ms,max_ms\n");
+        }
+        LatencySummary latency = result.getLatency();
+        String line = String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.4f,%.2f,%.2f,%.2f,%.2f%n",
+                label, result.getClients(), result.getRequests(), result.getThroughput(), result.getErrorRate(),
+                latency.percentile(50), latency.percentile(99), latency.percentile(99.9), latency.getMax());
+        Files.writeString(file, line, StandardOpenOption.APPEND);
+    }
+}
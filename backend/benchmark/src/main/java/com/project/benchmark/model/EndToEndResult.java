@@ -0,0 +1,80 @@
+package com.project.benchmark.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of an end-to-end run: how fast votes were accepted by the
+ * publisher, and how long each took to show up in the subscriber
+ */
+public class EndToEndResult {
+
+    private final double targetRate;
+    private final long elapsedNanos;
+    private final long sent;
+    private final long observed;
+    private final long missing;
+    private final LatencySummary publishLatency;
+    private final LatencySummary endToEndLatency;
+    // Publish responses by HTTP status; -1 counts requests that failed without one
+    private final Map<Integer, Long> statusCounts;
+
+    public EndToEndResult(double targetRate, long elapsedNanos, long sent, long observed, long missing,
+                          LatencySummary publishLatency, LatencySummary endToEndLatency,
+                          Map<Integer, Long> statusCounts) {
+        this.targetRate = targetRate;
+        this.elapsedNanos = elapsedNanos;
+        this.sent = sent;
+        this.observed = observed;
+        this.missing = missing;
+        this.publishLatency = publishLatency;
+        this.endToEndLatency = endToEndLatency;
+        this.statusCounts = new TreeMap<>(statusCounts);
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public double getSentRate() {
+        return elapsedNanos == 0 ? 0 : sent * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getObserved() {
+        return observed;
+    }
+
+    /**
+     * Votes the publisher accepted but the subscriber never showed
+     */
+    public long getMissing() {
+        return missing;
+    }
+
+    public long getRejected() {
+        return statusCounts.entrySet().stream()
+                .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    public double getErrorRate() {
+        return sent == 0 ? 0 : (double) (getRejected() + missing) / sent;
+    }
+
+    public LatencySummary getPublishLatency() {
+        return publishLatency;
+    }
+
+    public LatencySummary getEndToEndLatency() {
+        return endToEndLatency;
+    }
+
+    public Map<Integer, Long> getStatusCounts() {
+        return statusCounts;
+    }
+}
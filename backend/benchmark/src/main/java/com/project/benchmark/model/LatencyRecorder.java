@@ -0,0 +1,40 @@
+package com.project.benchmark.model;
+
+import java.util.Arrays;
+
+/**
+ * Latencies seen by one load-generating client. Every sample is kept so
+ * percentiles are exact; recorders are not thread-safe, each client owns
+ * one and they are merged once the run is over.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public static LatencySummary summarize(Iterable<LatencyRecorder> recorders) {
+        int total = 0;
+        for (LatencyRecorder recorder : recorders) {
+            total += recorder.count;
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (LatencyRecorder recorder : recorders) {
+            System.arraycopy(recorder.samples, 0, all, position, recorder.count);
+            position += recorder.count;
+        }
+        Arrays.sort(all);
+        return new LatencySummary(all);
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.benchmark.model;
+
+/**
+ * Percentiles over a sorted set of latency samples, in milliseconds
+ */
+public class LatencySummary {
+
+    private final long[] sortedNanos;
+
+    public LatencySummary(long[] sortedNanos) {
+        this.sortedNanos = sortedNanos;
+    }
+
+    public int getCount() {
+        return sortedNanos.length;
+    }
+
+    /**
+     * Nearest-rank percentile, e.g. {@code percentile(99.9)}; 0 when there are no samples
+     */
+    public double percentile(double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedNanos.length);
+        return toMillis(sortedNanos[Math.max(0, Math.min(rank, sortedNanos.length) - 1)]);
+    }
+
+    public double getMax() {
+        return sortedNanos.length == 0 ? 0 : toMillis(sortedNanos[sortedNanos.length - 1]);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.benchmark.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of one vote-storm step at a fixed number of concurrent clients
+ */
+public class StormResult {
+
+    private final int clients;
+    private final long elapsedNanos;
+    private final LatencySummary latency;
+    // Responses by HTTP status; -1 counts requests that failed or timed out without one
+    private final Map<Integer, Long> statusCounts;
+
+    public StormResult(int clients, long elapsedNanos, LatencySummary latency, Map<Integer, Long> statusCounts) {
+        this.clients = clients;
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+        this.statusCounts = new TreeMap<>(statusCounts);
+    }
+
+    public int getClients() {
+        return clients;
+    }
+
+    public LatencySummary getLatency() {
+        return latency;
+    }
+
+    public Map<Integer, Long> getStatusCounts() {
+        return statusCounts;
+    }
+
+    public long getRequests() {
+        return statusCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public long getAccepted() {
+        return statusCounts.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 200 && entry.getKey() < 300)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getAccepted() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double getErrorRate() {
+        long requests = getRequests();
+        return requests == 0 ? 0 : (double) (requests - getAccepted()) / requests;
+    }
+}
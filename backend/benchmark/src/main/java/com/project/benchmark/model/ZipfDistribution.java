@@ -0,0 +1,39 @@
+package com.project.benchmark.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks one of {@code n} items with probability proportional to
+ * 1 / rank^skew: a few hot polls and front-running candidates take most of
+ * the votes, the long tail gets the rest. A skew of 0 is uniform.
+ */
+public class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double skew) {
+        cumulative = new double[n];
+        double total = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            total += 1 / Math.pow(rank, skew);
+            cumulative[rank - 1] = total;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    /**
+     * Index of the next item, 0 being the most popular
+     */
+    public int next() {
+        double draw = ThreadLocalRandom.current().nextDouble();
+        int index = Arrays.binarySearch(cumulative, draw);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    public double probability(int index) {
+        return index == 0 ? cumulative[0] : cumulative[index] - cumulative[index - 1];
+    }
+}
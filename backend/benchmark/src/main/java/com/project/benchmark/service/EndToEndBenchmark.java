@@ -0,0 +1,304 @@
+package com.project.benchmark.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.project.benchmark.model.EndToEndResult;
+import com.project.benchmark.model.LatencyRecorder;
+import com.project.benchmark.model.ZipfDistribution;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes votes at a fixed rate and measures how long each takes to show
+ * up in the subscriber, in addition to how long the publisher takes to
+ * accept it.
+ *
+ * Votes are sent on a schedule (an open loop): a slow response does not
+ * delay the next vote, and both latencies are measured from when a vote was
+ * due rather than when it actually went out, so a stalled generator shows up
+ * as latency instead of hiding it. Polls and candidates are drawn from Zipf
+ * distributions, so a few polls and candidates get most of the traffic as in
+ * a real election night. Every vote carries a unique voter ID, which is how
+ * the subscriber's copy is matched back to it.
+ */
+public class EndToEndBenchmark {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String publisherUrl;
+    private final String subscriberUrl;
+    private final List<String> polls;
+    private final ZipfDistribution pollDistribution;
+    private final List<String> candidates;
+    private final ZipfDistribution candidateDistribution;
+    private final int batchSize;
+    private final Duration requestTimeout;
+    private final Duration observeInterval;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Voter ID -> System.nanoTime() the vote was due, until the subscriber shows it
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final LatencyRecorder publishRecorder = new LatencyRecorder();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+
+    public EndToEndBenchmark(HttpClient httpClient,
+                             ObjectMapper objectMapper,
+                             String publisherUrl,
+                             String subscriberUrl,
+                             List<String> polls,
+                             double pollSkew,
+                             List<String> candidates,
+                             double candidateSkew,
+                             int batchSize,
+                             Duration requestTimeout,
+                             Duration observeInterval) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.publisherUrl = publisherUrl;
+        this.subscriberUrl = subscriberUrl;
+        this.polls = polls;
+        this.pollDistribution = new ZipfDistribution(polls.size(), pollSkew);
+        this.candidates = candidates;
+        this.candidateDistribution = new ZipfDistribution(candidates.size(), candidateSkew);
+        this.batchSize = batchSize;
+        this.requestTimeout = requestTimeout;
+        this.observeInterval = observeInterval;
+    }
+
+    /**
+     * Subscribes to every poll and waits until one vote per poll has made it
+     * through, then sends {@code rate} votes per second for {@code duration}.
+     * Votes the subscriber has not shown {@code drainTimeout} after the last
+     * one was sent are reported as missing.
+     */
+    public EndToEndResult run(double rate, Duration duration, Duration drainTimeout, Duration primeTimeout)
+            throws Exception {
+        for (String poll : polls) {
+            subscribe(poll);
+        }
+        // Also creates the polls if Kafka auto-creates topics, so partitions are known afterwards
+        for (String poll : polls) {
+            String voterId = "e2e-" + runId + "-prime-" + poll;
+            pending.put(voterId, System.nanoTime());
+            if (!isAccepted(publish(poll, candidates.get(0), voterId))) {
+                throw new IllegalStateException("Publisher refused the priming vote for " + poll);
+            }
+        }
+
+        List<VoteObserver> observers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (String poll : polls) {
+            int partitions = Math.max(1, partitionCount(poll));
+            for (int partition = 0; partition < partitions; partition++) {
+                VoteObserver observer = new VoteObserver(httpClient, objectMapper, subscriberUrl, poll, partition,
+                        pending, observeInterval);
+                observers.add(observer);
+                threads.add(Thread.ofVirtual().name("e2e-observer-" + poll + "-", partition).start(observer));
+            }
+        }
+        if (!awaitDrained(primeTimeout)) {
+            stop(observers, threads);
+            throw new IllegalStateException("Subscriber at " + subscriberUrl + " did not show the priming votes within "
+                    + primeTimeout.toSeconds() + "s; is it subscribed and connected to the same Kafka?");
+        }
+
+        long start = System.nanoTime();
+        observers.forEach(observer -> observer.measureFrom(start));
+        long intervalNanos = (long) (batchSize * 1_000_000_000.0 / rate);
+        long end = start + duration.toNanos();
+        // Closing the executor waits for votes still in flight, each bounded by the request timeout
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due += intervalNanos) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long dueAt = due;
+                senders.execute(() -> send(dueAt));
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        awaitDrained(drainTimeout);
+        stop(observers, threads);
+
+        List<LatencyRecorder> endToEnd = new ArrayList<>();
+        long observed = 0;
+        for (VoteObserver observer : observers) {
+            endToEnd.add(observer.getRecorder());
+            observed += observer.getObserved();
+        }
+        Map<Integer, Long> statuses = new HashMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+        synchronized (publishRecorder) {
+            return new EndToEndResult(rate, elapsed, sent.sum(), observed, pending.size(),
+                    LatencyRecorder.summarize(List.of(publishRecorder)), LatencyRecorder.summarize(endToEnd), statuses);
+        }
+    }
+
+    /**
+     * Sends the votes due at {@code due}: one, or a batch of {@code batchSize}
+     */
+    private void send(long due) {
+        if (batchSize == 1) {
+            String voterId = nextVoterId();
+            String poll = polls.get(pollDistribution.next());
+            pending.put(voterId, due);
+            int status = publish(poll, candidates.get(candidateDistribution.next()), voterId);
+            record(due, status, 1);
+            if (!isAccepted(status)) {
+                pending.remove(voterId);
+            }
+            return;
+        }
+
+        ArrayNode votes = objectMapper.createArrayNode();
+        List<String> voterIds = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            String voterId = nextVoterId();
+            voterIds.add(voterId);
+            votes.addObject()
+                    .put("topic", polls.get(pollDistribution.next()))
+                    .put("message", voteBody(voterId, candidates.get(candidateDistribution.next())))
+                    .put("voterId", voterId);
+            pending.put(voterId, due);
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(publisherUrl + "/api/publish/batch?timestamp="
+                        + sequence.incrementAndGet()))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(votes.toString()))
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (!isAccepted(response.statusCode())) {
+                record(due, response.statusCode(), batchSize);
+                voterIds.forEach(pending::remove);
+                return;
+            }
+            // Per-vote outcomes are counted as the status a single publish would have got
+            JsonNode results = objectMapper.readTree(response.body()).path("results");
+            long storedCount = 0;
+            for (JsonNode result : results) {
+                String status = result.path("status").asText();
+                if (status.equals("STORED")) {
+                    storedCount++;
+                } else {
+                    pending.remove(voterIds.get(result.path("index").asInt()));
+                    count(status.equals("DUPLICATE") ? 409 : 500, 1);
+                }
+            }
+            record(due, response.statusCode(), storedCount);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            voterIds.forEach(pending::remove);
+        } catch (Exception e) {
+            record(due, -1, batchSize);
+            voterIds.forEach(pending::remove);
+        }
+    }
+
+    private int publish(String poll, String candidate, String voterId) {
+        String uri = publisherUrl + "/api/publish?topic=" + URLEncoder.encode(poll, StandardCharsets.UTF_8)
+                + "&timestamp=" + sequence.incrementAndGet()
+                + "&voterId=" + voterId;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(voteBody(voterId, candidate)))
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            // Connection refused, reset or timed out
+            return -1;
+        }
+    }
+
+    private void subscribe(String poll) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(subscriberUrl + "/api/subscribe?timestamp="
+                        + sequence.incrementAndGet()))
+                .timeout(requestTimeout)
+                .header("Content-Type", "text/plain")
+                .POST(HttpRequest.BodyPublishers.ofString(poll))
+                .build();
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (!isAccepted(status)) {
+            throw new IllegalStateException("Subscriber refused to subscribe to " + poll + " (" + status + ")");
+        }
+    }
+
+    private int partitionCount(String poll) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(publisherUrl + "/api/topics/"
+                        + URLEncoder.encode(poll, StandardCharsets.UTF_8) + "/partitions?timestamp="
+                        + sequence.incrementAndGet()))
+                .timeout(requestTimeout)
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return isAccepted(response.statusCode()) ? Integer.parseInt(response.body().trim()) : -1;
+    }
+
+    private boolean awaitDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(observeInterval.toMillis());
+        }
+        return pending.isEmpty();
+    }
+
+    private void stop(List<VoteObserver> observers, List<Thread> threads) throws InterruptedException {
+        observers.forEach(VoteObserver::stop);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void record(long due, int status, long votes) {
+        long latency = System.nanoTime() - due;
+        synchronized (publishRecorder) {
+            publishRecorder.record(latency);
+        }
+        count(status, votes);
+    }
+
+    private void count(int status, long votes) {
+        if (votes > 0) {
+            statusCounts.computeIfAbsent(status, key -> new LongAdder()).add(votes);
+            sent.add(votes);
+        }
+    }
+
+    private String nextVoterId() {
+        return "e2e-" + runId + "-" + sequence.incrementAndGet();
+    }
+
+    private static String voteBody(String voterId, String candidate) {
+        return "{\"name\":\"" + voterId + "\",\"vote\":\"" + candidate + "\"}";
+    }
+
+    private static boolean isAccepted(int status) {
+        return status >= 200 && status < 300;
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.benchmark.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything an end-to-end run needs on one machine: an in-process Kafka
+ * broker and the services started from their built jars, each pointed at it.
+ *
+ * The broker is spring-kafka-test's EmbeddedKafkaKraftBroker (KRaft, no
+ * ZooKeeper, no containers). It is only on the classpath with
+ * {@code -Pembedded-kafka}, so it is looked up by name rather than linked
+ * against and the default build does not need it.
+ */
+public class LocalStack implements AutoCloseable {
+
+    private static final String EMBEDDED_BROKER = "org.springframework.kafka.test.EmbeddedKafkaKraftBroker";
+
+    private final HttpClient httpClient;
+    private final Path logDir;
+    private final List<Process> processes = new ArrayList<>();
+    private Object broker;
+    private String bootstrapServers;
+
+    public LocalStack(HttpClient httpClient, Path logDir) {
+        this.httpClient = httpClient;
+        this.logDir = logDir;
+    }
+
+    /**
+     * Starts a single-node Kafka with the given topics already created
+     */
+    public String startKafka(int partitions, List<String> topics) throws Exception {
+        Class<?> brokerClass;
+        try {
+            brokerClass = Class.forName(EMBEDDED_BROKER);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Embedded Kafka is not on the classpath; run with -Pembedded-kafka", e);
+        }
+        broker = brokerClass.getConstructor(int.class, int.class, String[].class)
+                .newInstance(1, partitions, topics.toArray(new String[0]));
+        brokerClass.getMethod("afterPropertiesSet").invoke(broker);
+        bootstrapServers = (String) brokerClass.getMethod("getBrokersAsString").invoke(broker);
+        System.out.println("Started embedded Kafka at " + bootstrapServers + " with " + topics.size()
+                + " topics of " + partitions + " partitions");
+        return bootstrapServers;
+    }
+
+    /**
+     * Runs a service jar against the embedded Kafka and waits until it answers /api/ping
+     */
+    public String startService(String name, String jar, int port, List<String> arguments, Duration startupTimeout)
+            throws IOException, InterruptedException {
+        Files.createDirectories(logDir);
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-jar");
+        command.add(jar);
+        command.add("--server.port=" + port);
+        command.add("--spring.kafka.bootstrap-servers=" + bootstrapServers);
+        command.addAll(arguments);
+        File log = logDir.resolve(name + ".log").toFile();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        processes.add(process);
+
+        String url = "http://localhost:" + port;
+        long deadline = System.nanoTime() + startupTimeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited during startup, see " + log);
+            }
+            try {
+                HttpRequest ping = HttpRequest.newBuilder(URI.create(url + "/api/ping?timestamp=0"))
+                        .timeout(Duration.ofSeconds(1))
+                        .build();
+                if (httpClient.send(ping, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.println("Started " + name + " at " + url + " (log: " + log + ")");
+                    return url;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not start within " + startupTimeout.toSeconds() + "s, see " + log);
+    }
+
+    @Override
+    public void close() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(Duration.ofSeconds(15).toMillis(), java.util.concurrent.TimeUnit.MILLISECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+        if (broker != null) {
+            try {
+                broker.getClass().getMethod("destroy").invoke(broker);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Error stopping embedded Kafka: " + e.getMessage());
+            }
+        }
+    }
+}
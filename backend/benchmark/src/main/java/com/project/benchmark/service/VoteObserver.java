@@ -0,0 +1,126 @@
+package com.project.benchmark.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.benchmark.model.LatencyRecorder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Follows one partition of a poll on the subscriber through
+ * /api/messages/{topic}/page and matches every vote that shows up against
+ * the votes the load generator is still waiting for.
+ *
+ * Pages are fetched back to back while the subscriber has more, so the
+ * observer keeps up with the consumer; once caught up it waits
+ * {@code interval} before asking again, which bounds how much polling adds
+ * to the measured latency.
+ */
+public class VoteObserver implements Runnable {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String pageUrl;
+    private final Map<String, Long> pending;
+    private final Duration interval;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private long cursor = -1;
+    private long observed;
+    private long errors;
+    private volatile long measureFrom = Long.MAX_VALUE;
+    private volatile boolean stopped;
+
+    public VoteObserver(HttpClient httpClient, ObjectMapper objectMapper, String subscriberUrl, String topic,
+                        int partition, Map<String, Long> pending, Duration interval) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.pageUrl = subscriberUrl + "/api/messages/" + URLEncoder.encode(topic, StandardCharsets.UTF_8)
+                + "/page?partition=" + partition + "&limit=" + PAGE_SIZE;
+        this.pending = pending;
+        this.interval = interval;
+    }
+
+    @Override
+    public void run() {
+        long sequence = 0;
+        while (!stopped) {
+            boolean hasMore;
+            try {
+                hasMore = poll(sequence++);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                errors++;
+                hasMore = false;
+            }
+            if (!hasMore) {
+                try {
+                    Thread.sleep(interval.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fetches the next page and records the latency of every awaited vote on it
+     */
+    private boolean poll(long sequence) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(pageUrl + "&after=" + cursor + "&timestamp=" + sequence))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        long receivedAt = System.nanoTime();
+        if (response.statusCode() != 200) {
+            errors++;
+            return false;
+        }
+        JsonNode page = objectMapper.readTree(response.body());
+        for (JsonNode message : page.path("messages")) {
+            String voterId = message.path("voterId").asText(null);
+            Long sentAt = voterId == null ? null : pending.remove(voterId);
+            if (sentAt != null && sentAt >= measureFrom) {
+                recorder.record(receivedAt - sentAt);
+                observed++;
+            }
+        }
+        cursor = page.path("nextCursor").asLong(cursor);
+        return page.path("hasMore").asBoolean(false);
+    }
+
+    /**
+     * Only votes sent from {@code start} on are counted; earlier ones (the
+     * priming votes) are just cleared from the pending set
+     */
+    public void measureFrom(long start) {
+        measureFrom = start;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    public LatencyRecorder getRecorder() {
+        return recorder;
+    }
+
+    public long getObserved() {
+        return observed;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,139 @@
+package com.project.benchmark.service;
+
+import com.project.benchmark.model.LatencyRecorder;
+import com.project.benchmark.model.StormResult;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Floods the publisher's /api/publish with single votes from a fixed number
+ * of concurrent clients, each sending its next vote as soon as the previous
+ * one is answered (a closed loop, like voters refreshing a busy page).
+ *
+ * Clients run on virtual threads, so thousands of them cost the generator
+ * next to nothing and the server's request handling is what gets measured.
+ * Every voter ID is unique, so the duplicate filter accepts every vote.
+ */
+public class VoteStorm {
+
+    private final HttpClient httpClient;
+    private final String publisherUrl;
+    private final List<String> topics;
+    private final List<String> candidates;
+    private final boolean withVoterIds;
+    private final Duration requestTimeout;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    public VoteStorm(HttpClient httpClient,
+                     String publisherUrl,
+                     List<String> topics,
+                     List<String> candidates,
+                     boolean withVoterIds,
+                     Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.publisherUrl = publisherUrl;
+        this.topics = topics;
+        this.candidates = candidates;
+        this.withVoterIds = withVoterIds;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Runs {@code clients} clients for {@code warmup}, then measures them for {@code duration}.
+     * Requests still in flight when the measurement ends are waited for and counted.
+     */
+    public StormResult run(int clients, Duration warmup, Duration duration) throws InterruptedException {
+        Client[] running = new Client[clients];
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            running[i] = new Client(i);
+            threads.add(Thread.ofVirtual().name("storm-client-", i).start(running[i]));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        long start = System.nanoTime();
+        for (Client client : running) {
+            client.measureFrom = start;
+        }
+        Thread.sleep(duration.toMillis());
+        long end = System.nanoTime();
+        for (Client client : running) {
+            client.stopped = true;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<LatencyRecorder> recorders = new ArrayList<>(clients);
+        Map<Integer, Long> statusCounts = new HashMap<>();
+        for (Client client : running) {
+            recorders.add(client.recorder);
+            client.statusCounts.forEach((status, count) -> statusCounts.merge(status, count, Long::sum));
+        }
+        return new StormResult(clients, end - start, LatencyRecorder.summarize(recorders), statusCounts);
+    }
+
+    private HttpRequest voteRequest(int client, long sequence) {
+        String topic = topics.get((int) ((client + sequence) % topics.size()));
+        String candidate = candidates.get((int) (sequence % candidates.size()));
+        String voter = "storm-" + runId + "-" + client + "-" + sequence;
+        StringBuilder uri = new StringBuilder(publisherUrl)
+                .append("/api/publish?topic=").append(URLEncoder.encode(topic, StandardCharsets.UTF_8))
+                .append("&timestamp=").append(sequence);
+        if (withVoterIds) {
+            uri.append("&voterId=").append(voter);
+        }
+        String body = "{\"name\":\"" + voter + "\",\"vote\":\"" + candidate + "\"}";
+        return HttpRequest.newBuilder(URI.create(uri.toString()))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private class Client implements Runnable {
+
+        private final int id;
+        private final LatencyRecorder recorder = new LatencyRecorder();
+        private final Map<Integer, Long> statusCounts = new HashMap<>();
+        private volatile long measureFrom = Long.MAX_VALUE;
+        private volatile boolean stopped;
+
+        Client(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            long sequence = 0;
+            while (!stopped) {
+                HttpRequest request = voteRequest(id, sequence++);
+                long sent = System.nanoTime();
+                int status;
+                try {
+                    status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    // Connection refused, reset or timed out
+                    status = -1;
+                }
+                if (sent >= measureFrom) {
+                    recorder.record(System.nanoTime() - sent);
+                    statusCounts.merge(status, 1L, Long::sum);
+                }
+            }
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package com.project.broker;
 
 import com.project.broker.service.BrokerService;
+import com.project.broker.service.DeliveryTracker;
+import com.project.broker.service.LeaseService;
+import com.project.broker.service.PushService;
+import com.project.broker.service.ReplicationLog;
+import com.project.broker.service.TopicMetadataCache;
+import com.project.broker.service.VoteViewService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.springframework.kafka.core.ConsumerFactory;
 
+import java.time.Duration;
+
 @SpringBootApplication
 @EnableScheduling
 public class BrokerApplication {
@@ -24,9 +32,15 @@ public class BrokerApplication {
 		SpringApplication.run(BrokerApplication.class, args);
 	}
 
+	// Bounded so a dead leader or coordinator cannot hold a replication or heartbeat run
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate restTemplate(RestTemplateBuilder builder,
+									 @Value("${rest.client.connect-timeout:2s}") Duration connectTimeout,
+									 @Value("${rest.client.read-timeout:5s}") Duration readTimeout) {
+		return builder
+				.setConnectTimeout(connectTimeout)
+				.setReadTimeout(readTimeout)
+				.build();
 	}
 
 	@EventListener
@@ -38,10 +52,16 @@ public class BrokerApplication {
 
 	@Bean
 	public BrokerService brokerService(RestTemplate restTemplate, 
-									  KafkaTemplate<String, String> kafkaTemplate,
+									  DeliveryTracker deliveryTracker,
 									  AdminClient adminClient,
-									  ConsumerFactory<String, String> consumerFactory) {
-		BrokerService brokerService = new BrokerService(restTemplate, kafkaTemplate, adminClient, consumerFactory);
+									  ConsumerFactory<String, String> consumerFactory,
+									  TopicMetadataCache topicMetadataCache,
+									  ReplicationLog replicationLog,
+									  VoteViewService voteViewService,
+									  LeaseService leaseService,
+									  PushService pushService) {
+		BrokerService brokerService = new BrokerService(restTemplate, deliveryTracker, adminClient, consumerFactory,
+				topicMetadataCache, replicationLog, voteViewService, leaseService, pushService);
 		brokerService.setPort(port);
 		return brokerService;
 	}
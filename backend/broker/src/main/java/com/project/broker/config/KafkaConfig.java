@@ -1,12 +1,28 @@
 package com.project.broker.config;
 
+import com.project.broker.model.VoteRecord;
+import com.project.broker.serialization.VoteRecordDeserializer;
+import com.project.broker.service.DeliveryTracker;
+import com.project.broker.service.TopicMetadataCache;
+import com.project.broker.service.VoteViewService;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,6 +32,45 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${spring.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${spring.kafka.producer.buffer-memory:67108864}")
+    private long bufferMemory;
+
+    @Value("${spring.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${spring.kafka.producer.properties.linger.ms:10}")
+    private int lingerMs;
+
+    @Value("${spring.kafka.producer.properties.enable.idempotence:true}")
+    private boolean idempotence;
+
+    @Value("${kafka.delivery.max-in-flight:10000}")
+    private int maxInFlight;
+
+    @Value("${kafka.delivery.acquire-timeout:5s}")
+    private Duration acquireTimeout;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${spring.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${broker.view.enabled:true}")
+    private boolean viewEnabled;
+
+    @Value("${broker.view.recent-votes:1000}")
+    private int viewRecentVotes;
+
+    @Value("${broker.view.concurrency:1}")
+    private int viewConcurrency;
+
     @Bean
     public KafkaAdmin kafkaAdmin() {
         Map<String, Object> configs = new HashMap<>();
@@ -29,4 +84,52 @@ public class KafkaConfig {
         configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         return AdminClient.create(configs);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Producer tuned for throughput: records wait up to linger.ms to fill
+     * compressed batches, and idempotence keeps retries from duplicating votes
+     */
+    @Bean
+    public ProducerFactory<String, String> producerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    public KafkaTemplate<String, String> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    /**
+     * Vote view with its own consumers, which read votes in the binary
+     * layout; they are assigned partitions and seek themselves, so offsets
+     * they commit are never used
+     */
+    @Bean
+    public VoteViewService voteViewService(TopicMetadataCache topicMetadataCache) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, applicationName + "-view");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, VoteRecordDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        ConsumerFactory<String, VoteRecord> consumerFactory = new DefaultKafkaConsumerFactory<>(props);
+        return new VoteViewService(consumerFactory, topicMetadataCache, viewRecentVotes, viewConcurrency, viewEnabled);
+    }
+
+    @Bean
+    public DeliveryTracker deliveryTracker(MeterRegistry meterRegistry) {
+        return new DeliveryTracker(kafkaTemplate(), maxInFlight, acquireTimeout, meterRegistry, "broker");
+    }
+}
@@ -1,6 +1,12 @@
 package com.project.broker.controller;
 
+import com.project.broker.model.AdmissionReport;
+import com.project.broker.model.LeaseGrant;
+import com.project.broker.model.PollResults;
+import com.project.broker.model.ReplicationBatch;
+import com.project.broker.service.AdmissionService;
 import com.project.broker.service.BrokerService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +23,9 @@ public class BrokerApiController {
     @Autowired
     private BrokerService brokerService;
 
+    @Autowired
+    private AdmissionService admissionService;
+
     @GetMapping("/brokers")
     public List<String> getBrokers(@RequestParam long timestamp) {
         brokerService.updateClock(timestamp);
@@ -44,12 +53,37 @@ public class BrokerApiController {
         return brokerService.getMessages(topic);
     }
 
+    /**
+     * Per-candidate vote counts for a poll, from this broker's view of its topic
+     */
+    @GetMapping("/results/{topic}")
+    public PollResults getResults(@PathVariable String topic, @RequestParam String subscriberUrl, @RequestParam long timestamp) {
+        brokerService.updateClock(timestamp);
+        if (!brokerService.isSubscriberSubscribedToTopic(subscriberUrl, topic)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Subscriber is not subscribed to this topic");
+        }
+        return brokerService.getResults(topic);
+    }
+
     @GetMapping("/data")
     public Map<String, Object> getAllData(@RequestParam long timestamp) {
         brokerService.updateClock(timestamp);
         return brokerService.getAllData();
     }
 
+    /**
+     * Changes to this broker's state after version {@code since} of log
+     * {@code logId}, or a full snapshot when it cannot provide them; followers
+     * pass back the logId and version of the last batch they applied
+     */
+    @GetMapping("/replication")
+    public ReplicationBatch getReplicationBatch(@RequestParam(defaultValue = "-1") long since,
+                                                @RequestParam(defaultValue = "") String logId,
+                                                @RequestParam long timestamp) {
+        brokerService.updateClock(timestamp);
+        return brokerService.getReplicationBatch(logId, since);
+    }
+
     @PostMapping("/add-topic")
     public void addTopic(@RequestBody String topic, @RequestParam long timestamp) {
         brokerService.updateClock(timestamp);
@@ -57,11 +91,22 @@ public class BrokerApiController {
     }
 
     @PostMapping("/add-message")
-    public void addMessage(@RequestParam String topic, @RequestBody String message, @RequestParam long timestamp) {
+    public void addMessage(@RequestParam String topic, @RequestBody String message, @RequestParam long timestamp,
+                           HttpServletRequest request) {
         brokerService.updateClock(timestamp);
+        admissionService.admit(admissionService.clientOf(request), topic);
         brokerService.addMessage(topic, message);
     }
 
+    /**
+     * Admission counters and remaining tokens, globally and per poll
+     */
+    @GetMapping("/admission")
+    public AdmissionReport getAdmission(@RequestParam long timestamp) {
+        brokerService.updateClock(timestamp);
+        return admissionService.getReport();
+    }
+
     @PostMapping("/add-subscriber")
     public void addSubscriber(@RequestParam String topic, @RequestBody String subscriberUrl, @RequestParam long timestamp) {
         brokerService.updateClock(timestamp);
@@ -74,6 +119,49 @@ public class BrokerApiController {
         brokerService.removeSubscriber(topic, subscriberUrl);
     }
 
+    /**
+     * Subscribes one subscriber to every poll in the body at once
+     */
+    @PostMapping("/subscriptions")
+    public void addSubscriptions(@RequestParam String subscriberUrl, @RequestBody List<String> topics,
+                                 @RequestParam long timestamp) {
+        brokerService.updateClock(timestamp);
+        brokerService.addSubscriptions(subscriberUrl, topics);
+    }
+
+    /**
+     * Unsubscribes one subscriber from the polls in the body, or from all of them without a body
+     */
+    @PostMapping("/subscriptions/remove")
+    public void removeSubscriptions(@RequestParam String subscriberUrl, @RequestBody(required = false) List<String> topics,
+                                    @RequestParam long timestamp) {
+        brokerService.updateClock(timestamp);
+        brokerService.removeSubscriptions(subscriberUrl, topics);
+    }
+
+    @GetMapping("/subscriptions")
+    public List<String> getSubscriptions(@RequestParam String subscriberUrl, @RequestParam long timestamp) {
+        brokerService.updateClock(timestamp);
+        return brokerService.getSubscriptions(subscriberUrl);
+    }
+
+    /**
+     * Renews the lease of every subscriber in the body (granting new ones);
+     * subscribers that stop renewing are unsubscribed from everything once
+     * their lease runs out
+     */
+    @PostMapping("/leases")
+    public LeaseGrant renewLeases(@RequestBody List<String> subscriberUrls, @RequestParam long timestamp) {
+        brokerService.updateClock(timestamp);
+        return brokerService.renewLeases(subscriberUrls);
+    }
+
+    @PostMapping("/leases/release")
+    public void releaseLease(@RequestParam String subscriberUrl, @RequestParam long timestamp) {
+        brokerService.updateClock(timestamp);
+        brokerService.releaseLease(subscriberUrl);
+    }
+
     @GetMapping("/ping")
     public String ping(@RequestParam long timestamp) {
         brokerService.updateClock(timestamp);
@@ -0,0 +1,75 @@
+package com.project.broker.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admission state of /api/add-message: the global limit, every poll seen so
+ * far, and how many votes were refused by each kind of limit
+ */
+public class AdmissionReport {
+
+    private boolean enabled;
+    private AdmissionStats global;
+    private List<AdmissionStats> topics = new ArrayList<>();
+    private long rejectedByGlobalLimit;
+    private long rejectedByTopicLimit;
+    private long rejectedByClientLimit;
+    private int trackedClients;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public AdmissionStats getGlobal() {
+        return global;
+    }
+
+    public void setGlobal(AdmissionStats global) {
+        this.global = global;
+    }
+
+    public List<AdmissionStats> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(List<AdmissionStats> topics) {
+        this.topics = topics;
+    }
+
+    public long getRejectedByGlobalLimit() {
+        return rejectedByGlobalLimit;
+    }
+
+    public void setRejectedByGlobalLimit(long rejectedByGlobalLimit) {
+        this.rejectedByGlobalLimit = rejectedByGlobalLimit;
+    }
+
+    public long getRejectedByTopicLimit() {
+        return rejectedByTopicLimit;
+    }
+
+    public void setRejectedByTopicLimit(long rejectedByTopicLimit) {
+        this.rejectedByTopicLimit = rejectedByTopicLimit;
+    }
+
+    public long getRejectedByClientLimit() {
+        return rejectedByClientLimit;
+    }
+
+    public void setRejectedByClientLimit(long rejectedByClientLimit) {
+        this.rejectedByClientLimit = rejectedByClientLimit;
+    }
+
+    public int getTrackedClients() {
+        return trackedClients;
+    }
+
+    public void setTrackedClients(int trackedClients) {
+        this.trackedClients = trackedClients;
+    }
+}
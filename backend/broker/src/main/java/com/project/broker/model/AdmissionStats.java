@@ -0,0 +1,74 @@
+package com.project.broker.model;
+
+/**
+ * Admission counters of one poll (or of all polls together for the global limit)
+ */
+public class AdmissionStats {
+
+    private String topic;
+    private double ratePerSecond;
+    private long burst;
+    private long availableTokens;
+    private long admitted;
+    private long rejected;
+
+    public AdmissionStats() {
+    }
+
+    public AdmissionStats(String topic, double ratePerSecond, long burst, long availableTokens, long admitted, long rejected) {
+        this.topic = topic;
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+        this.availableTokens = availableTokens;
+        this.admitted = admitted;
+        this.rejected = rejected;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    public long getBurst() {
+        return burst;
+    }
+
+    public void setBurst(long burst) {
+        this.burst = burst;
+    }
+
+    public long getAvailableTokens() {
+        return availableTokens;
+    }
+
+    public void setAvailableTokens(long availableTokens) {
+        this.availableTokens = availableTokens;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public void setAdmitted(long admitted) {
+        this.admitted = admitted;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.broker.model;
+
+/**
+ * Answer to a lease renewal: how many leases were new, how many were
+ * extended, and how long they now last
+ */
+public class LeaseGrant {
+
+    private long ttlMs;
+    private int granted;
+    private int renewed;
+
+    public LeaseGrant() {
+    }
+
+    public LeaseGrant(long ttlMs, int granted, int renewed) {
+        this.ttlMs = ttlMs;
+        this.granted = granted;
+        this.renewed = renewed;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    public void setTtlMs(long ttlMs) {
+        this.ttlMs = ttlMs;
+    }
+
+    public int getGranted() {
+        return granted;
+    }
+
+    public void setGranted(int granted) {
+        this.granted = granted;
+    }
+
+    public int getRenewed() {
+        return renewed;
+    }
+
+    public void setRenewed(int renewed) {
+        this.renewed = renewed;
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.broker.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class PollResults {
+
+    private String topic;
+    private long totalVotes;
+    private Map<String, Long> counts = new HashMap<>();
+
+    public PollResults() {
+    }
+
+    public PollResults(String topic, long totalVotes, Map<String, Long> counts) {
+        this.topic = topic;
+        this.totalVotes = totalVotes;
+        this.counts = counts;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public long getTotalVotes() {
+        return totalVotes;
+    }
+
+    public void setTotalVotes(long totalVotes) {
+        this.totalVotes = totalVotes;
+    }
+
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<String, Long> counts) {
+        this.counts = counts;
+    }
+}
@@ -0,0 +1,151 @@
+package com.project.broker.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Updates waiting to be pushed to one subscriber, at most one per poll:
+ * a later update for a poll is merged into the pending one, summing deltas,
+ * extending the vote range and appending votes. Snapshots replace the
+ * pending counts. Once more than {@code capacity} votes are pending, the
+ * oldest are left out and counted in votesDropped; counts are unaffected.
+ *
+ * Also remembers which polls the subscriber has had a snapshot of.
+ *
+ * Not thread-safe.
+ */
+public class PushQueue {
+
+    private final int capacity;
+    private final boolean includeVotes;
+    private Map<String, TopicUpdate> pending = new LinkedHashMap<>();
+    private int pendingVotes;
+    private final Set<String> synced = new HashSet<>();
+    private long timestamp;
+
+    public PushQueue(int capacity, boolean includeVotes) {
+        this.capacity = capacity;
+        this.includeVotes = includeVotes;
+    }
+
+    /**
+     * Merges {@code update} into what is pending for its poll
+     *
+     * @return the number of votes left out to stay within capacity
+     */
+    public int merge(TopicUpdate update) {
+        List<String> votes = includeVotes ? update.getVotes() : List.of();
+        TopicUpdate current = pending.get(update.getTopic());
+        if (current == null) {
+            current = new TopicUpdate(update.getTopic(), update.isSnapshot(), update.getBaseVotes(),
+                    update.getTotalVotes(), new HashMap<>(update.getDeltas()), new ArrayList<>(votes));
+            pending.put(update.getTopic(), current);
+        } else {
+            if (update.isSnapshot()) {
+                current.setSnapshot(true);
+                current.setDeltas(new HashMap<>(update.getDeltas()));
+            } else {
+                Map<String, Long> deltas = current.getDeltas();
+                update.getDeltas().forEach((candidate, delta) -> deltas.merge(candidate, delta, Long::sum));
+            }
+            current.setTotalVotes(update.getTotalVotes());
+            current.getVotes().addAll(votes);
+        }
+        if (current.isSnapshot()) {
+            current.setBaseVotes(current.getTotalVotes());
+        }
+        current.setVotesDropped(current.getVotesDropped() + update.getVotesDropped());
+        pendingVotes += votes.size();
+
+        // Only this poll's votes can have pushed the queue over, so trimming it is enough
+        int excess = pendingVotes - capacity;
+        if (excess <= 0) {
+            return 0;
+        }
+        current.getVotes().subList(0, excess).clear();
+        current.setVotesDropped(current.getVotesDropped() + excess);
+        pendingVotes -= excess;
+        return excess;
+    }
+
+    /**
+     * Removes and returns everything pending
+     */
+    public List<TopicUpdate> take() {
+        List<TopicUpdate> batch = new ArrayList<>(pending.values());
+        pending = new LinkedHashMap<>();
+        pendingVotes = 0;
+        return batch;
+    }
+
+    /**
+     * Puts a batch that may not have arrived back in front of what was
+     * queued since; returns the votes left out to stay within capacity
+     */
+    public int requeue(List<TopicUpdate> batch) {
+        List<TopicUpdate> newer = take();
+        int dropped = 0;
+        for (TopicUpdate update : batch) {
+            dropped += merge(update);
+        }
+        for (TopicUpdate update : newer) {
+            dropped += merge(update);
+        }
+        return dropped;
+    }
+
+    /**
+     * Drops what is pending for the given polls and forgets their snapshots
+     */
+    public void drop(Collection<String> topics) {
+        for (String topic : topics) {
+            TopicUpdate update = pending.remove(topic);
+            if (update != null) {
+                pendingVotes -= update.getVotes().size();
+            }
+            synced.remove(topic);
+        }
+    }
+
+    /**
+     * Records that the subscriber has, or is about to get, a snapshot of the poll
+     *
+     * @return false if it already had one
+     */
+    public boolean markSynced(String topic) {
+        return synced.add(topic);
+    }
+
+    public boolean isSynced(String topic) {
+        return synced.contains(topic);
+    }
+
+    /**
+     * Pending polls plus pending votes, what batch-size is measured in
+     */
+    public int size() {
+        return pending.size() + pendingVotes;
+    }
+
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    public TopicUpdate getPending(String topic) {
+        return pending.get(topic);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void advanceTimestamp(long timestamp) {
+        this.timestamp = Math.max(this.timestamp, timestamp);
+    }
+}
@@ -0,0 +1,102 @@
+package com.project.broker.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What a follower gets from /api/replication: either the changes after the
+ * version it asked for, or a full snapshot when the leader cannot serve
+ * those (the follower is new, fell behind the retained log, or followed a
+ * different leader). {@code version} is the last change covered either way.
+ */
+public class ReplicationBatch {
+
+    private String logId;
+    private long version;
+    private boolean snapshot;
+    private boolean hasMore;
+    private List<ReplicationChange> changes = new ArrayList<>();
+    private List<String> topics = new ArrayList<>();
+    private Map<String, List<String>> subscribers = new HashMap<>();
+
+    public ReplicationBatch() {
+    }
+
+    public static ReplicationBatch changes(String logId, long since, List<ReplicationChange> changes, boolean hasMore) {
+        ReplicationBatch batch = new ReplicationBatch();
+        batch.logId = logId;
+        batch.version = changes.isEmpty() ? since : changes.get(changes.size() - 1).getVersion();
+        batch.changes = changes;
+        batch.hasMore = hasMore;
+        return batch;
+    }
+
+    public static ReplicationBatch snapshot(String logId, long version, List<String> topics,
+                                            Map<String, List<String>> subscribers) {
+        ReplicationBatch batch = new ReplicationBatch();
+        batch.logId = logId;
+        batch.version = version;
+        batch.snapshot = true;
+        batch.topics = topics;
+        batch.subscribers = subscribers;
+        return batch;
+    }
+
+    public String getLogId() {
+        return logId;
+    }
+
+    public void setLogId(String logId) {
+        this.logId = logId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<ReplicationChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<ReplicationChange> changes) {
+        this.changes = changes;
+    }
+
+    public List<String> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(List<String> topics) {
+        this.topics = topics;
+    }
+
+    public Map<String, List<String>> getSubscribers() {
+        return subscribers;
+    }
+
+    public void setSubscribers(Map<String, List<String>> subscribers) {
+        this.subscribers = subscribers;
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.broker.model;
+
+/**
+ * One change to the leader's replicated state, stamped with the leader's
+ * Lamport clock at the time it was made
+ */
+public class ReplicationChange {
+
+    public enum Type {
+        ADD_TOPIC,
+        ADD_SUBSCRIBER,
+        REMOVE_SUBSCRIBER
+    }
+
+    private long version;
+    private Type type;
+    private String topic;
+    private String subscriberUrl;
+
+    public ReplicationChange() {
+    }
+
+    public ReplicationChange(long version, Type type, String topic, String subscriberUrl) {
+        this.version = version;
+        this.type = type;
+        this.topic = topic;
+        this.subscriberUrl = subscriberUrl;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public String getSubscriberUrl() {
+        return subscriberUrl;
+    }
+
+    public void setSubscriberUrl(String subscriberUrl) {
+        this.subscriberUrl = subscriberUrl;
+    }
+}
@@ -0,0 +1,164 @@
+package com.project.broker.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Which subscribers follow which poll, indexed both ways: a concurrent set
+ * of subscriber URLs per topic for O(1) membership checks, and the topics
+ * of each subscriber so one can be dropped from every poll at once.
+ *
+ * Reads never lock. Writes are serialized so the two indexes always agree
+ * once a write returns; a bulk write takes the lock once for all its topics.
+ * Loading a snapshot builds a new index and swaps it in, so readers see the
+ * old or the new state and never a mix.
+ */
+public class SubscriberRegistry {
+
+    private volatile Index index = new Index();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public boolean isSubscribed(String topic, String subscriberUrl) {
+        Set<String> subscribers = index.byTopic.get(topic);
+        return subscribers != null && subscribers.contains(subscriberUrl);
+    }
+
+    /**
+     * @return false if the subscriber already followed the topic
+     */
+    public boolean add(String topic, String subscriberUrl) {
+        writeLock.lock();
+        try {
+            return index.add(topic, subscriberUrl);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return false if the subscriber did not follow the topic
+     */
+    public boolean remove(String topic, String subscriberUrl) {
+        writeLock.lock();
+        try {
+            return index.remove(topic, subscriberUrl);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Subscribes to every given topic; returns the topics that were new
+     */
+    public List<String> addAll(String subscriberUrl, Collection<String> topics) {
+        writeLock.lock();
+        try {
+            List<String> added = new ArrayList<>();
+            for (String topic : topics) {
+                if (index.add(topic, subscriberUrl)) {
+                    added.add(topic);
+                }
+            }
+            return added;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Unsubscribes from the given topics, or from all of them when
+     * {@code topics} is null; returns the topics actually left
+     */
+    public List<String> removeAll(String subscriberUrl, Collection<String> topics) {
+        writeLock.lock();
+        try {
+            Set<String> current = index.bySubscriber.get(subscriberUrl);
+            if (current == null) {
+                return List.of();
+            }
+            List<String> removed = new ArrayList<>(topics == null ? current : topics);
+            removed.removeIf(topic -> !index.remove(topic, subscriberUrl));
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole registry, e.g. with a snapshot from the leader
+     */
+    public void replaceAll(Map<String, List<String>> subscribersByTopic) {
+        Index loaded = new Index();
+        subscribersByTopic.forEach((topic, subscribers) -> subscribers.forEach(url -> loaded.add(topic, url)));
+        writeLock.lock();
+        try {
+            index = loaded;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<String> getSubscribers(String topic) {
+        Set<String> subscribers = index.byTopic.get(topic);
+        return subscribers == null ? new ArrayList<>() : new ArrayList<>(subscribers);
+    }
+
+    public List<String> getTopics(String subscriberUrl) {
+        Set<String> topics = index.bySubscriber.get(subscriberUrl);
+        return topics == null ? new ArrayList<>() : new ArrayList<>(topics);
+    }
+
+    /**
+     * Every distinct subscriber URL
+     */
+    public List<String> getSubscribers() {
+        return new ArrayList<>(index.bySubscriber.keySet());
+    }
+
+    /**
+     * Topic -&gt; subscriber URLs, as an independent copy
+     */
+    public Map<String, List<String>> snapshot() {
+        Map<String, List<String>> copy = new HashMap<>();
+        index.byTopic.forEach((topic, subscribers) -> copy.put(topic, new ArrayList<>(subscribers)));
+        return copy;
+    }
+
+    private static class Index {
+
+        private final Map<String, Set<String>> byTopic = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> bySubscriber = new ConcurrentHashMap<>();
+
+        boolean add(String topic, String subscriberUrl) {
+            if (!byTopic.computeIfAbsent(topic, k -> ConcurrentHashMap.newKeySet()).add(subscriberUrl)) {
+                return false;
+            }
+            bySubscriber.computeIfAbsent(subscriberUrl, k -> ConcurrentHashMap.newKeySet()).add(topic);
+            return true;
+        }
+
+        boolean remove(String topic, String subscriberUrl) {
+            Set<String> subscribers = byTopic.get(topic);
+            if (subscribers == null || !subscribers.remove(subscriberUrl)) {
+                return false;
+            }
+            if (subscribers.isEmpty()) {
+                byTopic.remove(topic);
+            }
+            Set<String> topics = bySubscriber.get(subscriberUrl);
+            if (topics != null) {
+                topics.remove(topic);
+                if (topics.isEmpty()) {
+                    bySubscriber.remove(subscriberUrl);
+                }
+            }
+            return true;
+        }
+    }
+}
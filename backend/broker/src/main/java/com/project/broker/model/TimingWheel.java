@@ -0,0 +1,83 @@
+package com.project.broker.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel: keys are dropped into the slot of the tick their
+ * deadline falls in, and advancing the wheel only visits the slots of the
+ * ticks that passed. Scheduling is O(1) and housekeeping costs the number
+ * of keys due, not the number scheduled, as long as the wheel spans the
+ * longest delay used (slots x tick); longer delays still work, their keys
+ * are just passed over once per turn of the wheel.
+ *
+ * Not thread-safe.
+ */
+public class TimingWheel {
+
+    private final long tickNanos;
+    private final long origin;
+    // Per slot: key -> absolute tick it is due at
+    private final Map<String, Long>[] slots;
+    private long processedTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickNanos, int slotCount, long now) {
+        this.tickNanos = tickNanos;
+        this.origin = now;
+        this.slots = new Map[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new HashMap<>();
+        }
+    }
+
+    /**
+     * Schedules {@code key} for {@code deadline} (System.nanoTime() based); it
+     * comes out of {@link #advance} on the first tick at or after it. A key
+     * must not be scheduled again before it has come out.
+     */
+    public void schedule(String key, long deadline) {
+        long tick = Math.max((deadline - origin + tickNanos - 1) / tickNanos, processedTick + 1);
+        if (slots[(int) (tick % slots.length)].put(key, tick) == null) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes and returns every key due by {@code now}
+     */
+    public List<String> advance(long now) {
+        long last = (now - origin) / tickNanos;
+        List<String> due = new ArrayList<>();
+        // After a long pause each slot is visited once, taking everything due by now
+        long from = Math.max(processedTick + 1, last - slots.length + 1);
+        for (long tick = from; tick <= last; tick++) {
+            Iterator<Map.Entry<String, Long>> entries = slots[(int) (tick % slots.length)].entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, Long> entry = entries.next();
+                if (entry.getValue() <= last) {
+                    due.add(entry.getKey());
+                    entries.remove();
+                    size--;
+                }
+            }
+        }
+        processedTick = Math.max(processedTick, last);
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (Map<String, Long> slot : slots) {
+            slot.clear();
+        }
+        size = 0;
+    }
+}
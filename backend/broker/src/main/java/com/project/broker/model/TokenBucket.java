@@ -0,0 +1,81 @@
+package com.project.broker.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single timestamp (the generic cell rate
+ * algorithm): {@code fullAt} is when the bucket would be full again if
+ * nothing else were taken. Taking n tokens pushes it n token-intervals
+ * further out; that is refused while it would end up more than a full
+ * burst ahead of now. One compare-and-set per attempt, no refill thread.
+ *
+ * A request for more than a burst is let through only once the bucket is
+ * full, and leaves it in debt for the rest: it is paid back at the
+ * configured rate before anything else is let through, so oversized
+ * requests cannot beat the rate either.
+ */
+public class TokenBucket {
+
+    private final double ratePerSecond;
+    private final long burst;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double ratePerSecond, long burst) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000 / ratePerSecond));
+        this.burstNanos = this.burst * nanosPerToken;
+        // Already full for callers that read the clock just before the bucket was made
+        this.fullAt = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * Takes {@code tokens} tokens if they are available
+     *
+     * @return 0 if they were taken, otherwise how many nanoseconds until they would be
+     */
+    public long tryAcquire(long tokens, long now) {
+        long cost = tokens * nanosPerToken;
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + cost;
+            long ahead = next - now;
+            if (cost > burstNanos) {
+                if (current - now > 0) {
+                    return current - now;
+                }
+            } else if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back tokens taken by {@link #tryAcquire} for a request that was refused elsewhere
+     */
+    public void release(long tokens) {
+        fullAt.addAndGet(-tokens * nanosPerToken);
+    }
+
+    public long availableTokens(long now) {
+        long ahead = Math.max(0, fullAt.get() - now);
+        return Math.max(0, (burstNanos - ahead) / nanosPerToken);
+    }
+
+    public boolean isFull(long now) {
+        return fullAt.get() <= now;
+    }
+
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public long getBurst() {
+        return burst;
+    }
+}
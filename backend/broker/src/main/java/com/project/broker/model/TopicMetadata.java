@@ -0,0 +1,47 @@
+package com.project.broker.model;
+
+import java.util.Map;
+
+/**
+ * What the topic metadata cache knows about one topic. Configs are only
+ * filled in when asked for, since fetching them is a separate admin call.
+ */
+public class TopicMetadata {
+
+    private String name;
+    private int partitions;
+    private Map<String, String> configs;
+
+    public TopicMetadata() {
+    }
+
+    public TopicMetadata(String name, int partitions, Map<String, String> configs) {
+        this.name = name;
+        this.partitions = partitions;
+        this.configs = configs;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public void setPartitions(int partitions) {
+        this.partitions = partitions;
+    }
+
+    public Map<String, String> getConfigs() {
+        return configs;
+    }
+
+    public void setConfigs(Map<String, String> configs) {
+        this.configs = configs;
+    }
+}
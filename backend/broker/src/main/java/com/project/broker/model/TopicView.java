@@ -0,0 +1,75 @@
+package com.project.broker.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the broker knows about one poll from reading its topic: vote counts
+ * per candidate over the whole topic, the most recent votes in the string
+ * form /api/messages returns, and how far each partition has been read.
+ *
+ * Recent votes live in a fixed-size ring, so memory stays bounded however
+ * many votes the poll gets; counts are kept for every vote.
+ */
+public class TopicView {
+
+    private final String topic;
+    private final Map<String, Long> counts = new HashMap<>();
+    private final String[] recent;
+    private int recentStart;
+    private int recentSize;
+    private long totalVotes;
+    // Partition -> offset of the next record to read
+    private final Map<Integer, Long> nextOffsets = new HashMap<>();
+
+    public TopicView(String topic, int recentCapacity) {
+        this.topic = topic;
+        this.recent = new String[recentCapacity];
+    }
+
+    public synchronized void record(int partition, long offset, String candidate, String text) {
+        counts.merge(candidate, 1L, Long::sum);
+        totalVotes++;
+        if (recent.length > 0) {
+            if (recentSize == recent.length) {
+                recent[recentStart] = text;
+                recentStart = (recentStart + 1) % recent.length;
+            } else {
+                recent[(recentStart + recentSize++) % recent.length] = text;
+            }
+        }
+        nextOffsets.put(partition, offset + 1);
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * The most recent votes, oldest first
+     */
+    public synchronized List<String> getRecentVotes() {
+        List<String> votes = new ArrayList<>(recentSize);
+        for (int i = 0; i < recentSize; i++) {
+            votes.add(recent[(recentStart + i) % recent.length]);
+        }
+        return votes;
+    }
+
+    public synchronized long getTotalVotes() {
+        return totalVotes;
+    }
+
+    public synchronized PollResults getResults() {
+        return new PollResults(topic, totalVotes, new HashMap<>(counts));
+    }
+
+    /**
+     * Offset to resume a partition from, or -1 if nothing was read from it yet
+     */
+    public synchronized long nextOffset(int partition) {
+        return nextOffsets.getOrDefault(partition, -1L);
+    }
+}
@@ -0,0 +1,250 @@
+package com.project.broker.service;
+
+import com.project.broker.config.AdmissionProperties;
+import com.project.broker.model.AdmissionReport;
+import com.project.broker.model.AdmissionStats;
+import com.project.broker.model.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether an /api/add-message request may go ahead, before it
+ * reaches the producer.
+ *
+ * A request needs a token for each of its votes from its caller's bucket,
+ * from the bucket of each poll it votes in and from the global bucket.
+ * If any of them is short, the tokens already taken are given back and the
+ * request is refused straight away with 429 and a Retry-After, so a flood on
+ * one poll or from one caller cannot fill the producer buffer for everyone.
+ */
+@Service
+public class AdmissionService {
+
+    private enum Limit { GLOBAL, TOPIC, CLIENT }
+
+    private final AdmissionProperties properties;
+    private final TokenBucket globalBucket;
+    private final Map<String, TopicAdmission> topics = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> clients = new ConcurrentHashMap<>();
+    private final LongAdder globalAdmitted = new LongAdder();
+    private final LongAdder globalRejected = new LongAdder();
+    private final Map<Limit, LongAdder> rejectedByLimit = new ConcurrentHashMap<>();
+    private final Counter admittedCounter;
+    private final Map<Limit, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public AdmissionService(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.globalBucket = bucketFor(properties.getGlobal());
+        this.admittedCounter = Counter.builder("broker.admission.admitted")
+                .description("Votes let through by admission control")
+                .register(meterRegistry);
+        for (Limit limit : Limit.values()) {
+            rejectedByLimit.put(limit, new LongAdder());
+            rejectedCounters.put(limit, Counter.builder("broker.admission.rejected")
+                    .description("Votes refused with 429 by admission control")
+                    .tag("limit", limit.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * The caller a request is counted against
+     */
+    public String clientOf(HttpServletRequest request) {
+        String header = properties.getClientHeader();
+        if (header != null && !header.isBlank()) {
+            String value = request.getHeader(header);
+            if (value != null && !value.isBlank()) {
+                // X-Forwarded-For lists the original client first
+                int comma = value.indexOf(',');
+                return (comma < 0 ? value : value.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    public void admit(String client, String topic) {
+        admit(client, Map.of(topic, 1));
+    }
+
+    /**
+     * Admits a request carrying {@code votesByTopic} votes per poll, or throws
+     * {@link AdmissionRejectedException}. A request larger than a bucket's
+     * burst waits for that bucket to be full and then leaves it owing the rest.
+     */
+    public void admit(String client, Map<String, Integer> votesByTopic) {
+        if (!properties.isEnabled() || votesByTopic.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        int total = votesByTopic.values().stream().mapToInt(Integer::intValue).sum();
+
+        // The caller's own bucket goes first, so a noisy caller is refused
+        // before it uses up poll or global capacity
+        TokenBucket clientBucket = clientBucket(client);
+        long wait = acquire(clientBucket, total, now);
+        if (wait > 0) {
+            throw reject(Limit.CLIENT, votesByTopic, total, wait);
+        }
+        List<Map.Entry<TopicAdmission, Integer>> taken = new ArrayList<>(votesByTopic.size());
+        // Polls first seen in this request; they are only kept if it is admitted
+        Map<String, TopicAdmission> created = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : votesByTopic.entrySet()) {
+            TopicAdmission admission = topicAdmission(entry.getKey(), created);
+            wait = acquire(admission.bucket, entry.getValue(), now);
+            if (wait > 0) {
+                release(clientBucket, total);
+                taken.forEach(done -> release(done.getKey().bucket, done.getValue()));
+                created.forEach(topics::remove);
+                throw reject(Limit.TOPIC, votesByTopic, total, wait);
+            }
+            taken.add(Map.entry(admission, entry.getValue()));
+        }
+        wait = acquire(globalBucket, total, now);
+        if (wait > 0) {
+            release(clientBucket, total);
+            taken.forEach(done -> release(done.getKey().bucket, done.getValue()));
+            created.forEach(topics::remove);
+            throw reject(Limit.GLOBAL, votesByTopic, total, wait);
+        }
+
+        taken.forEach(done -> done.getKey().admitted.add(done.getValue()));
+        globalAdmitted.add(total);
+        admittedCounter.increment(total);
+    }
+
+    public AdmissionReport getReport() {
+        long now = System.nanoTime();
+        AdmissionReport report = new AdmissionReport();
+        report.setEnabled(properties.isEnabled());
+        report.setGlobal(stats("*", globalBucket, globalAdmitted, globalRejected, now));
+        topics.forEach((topic, admission) ->
+                report.getTopics().add(stats(topic, admission.bucket, admission.admitted, admission.rejected, now)));
+        report.setRejectedByGlobalLimit(rejectedByLimit.get(Limit.GLOBAL).sum());
+        report.setRejectedByTopicLimit(rejectedByLimit.get(Limit.TOPIC).sum());
+        report.setRejectedByClientLimit(rejectedByLimit.get(Limit.CLIENT).sum());
+        report.setTrackedClients(clients.size());
+        return report;
+    }
+
+    /**
+     * Forgets callers whose bucket has filled up again; they start over with a full one
+     */
+    @Scheduled(fixedDelayString = "${broker.admission.evict-ms:60000}")
+    public void evictIdleClients() {
+        long now = System.nanoTime();
+        clients.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private TokenBucket clientBucket(String client) {
+        if (properties.getClient().getRate() <= 0) {
+            return null;
+        }
+        return clients.computeIfAbsent(client, k -> bucketFor(properties.getClient()));
+    }
+
+    /**
+     * The poll's entry, created if it has none; a new entry is also put in {@code created}
+     */
+    private TopicAdmission topicAdmission(String topic, Map<String, TopicAdmission> created) {
+        TopicAdmission admission = topics.get(topic);
+        if (admission != null) {
+            return admission;
+        }
+        TopicAdmission fresh = new TopicAdmission(bucketFor(properties.limitFor(topic)));
+        admission = topics.putIfAbsent(topic, fresh);
+        if (admission != null) {
+            return admission;
+        }
+        created.put(topic, fresh);
+        return fresh;
+    }
+
+    private AdmissionRejectedException reject(Limit limit, Map<String, Integer> votesByTopic, int total, long waitNanos) {
+        // Only polls that already have an entry are counted, so refused requests
+        // naming arbitrary polls cannot grow the map
+        votesByTopic.forEach((topic, votes) -> {
+            TopicAdmission admission = topics.get(topic);
+            if (admission != null) {
+                admission.rejected.add(votes);
+            }
+        });
+        globalRejected.add(total);
+        rejectedByLimit.get(limit).add(total);
+        rejectedCounters.get(limit).increment(total);
+        return new AdmissionRejectedException(limit.name().toLowerCase(), waitNanos);
+    }
+
+    private static long acquire(TokenBucket bucket, long tokens, long now) {
+        return bucket == null ? 0 : bucket.tryAcquire(tokens, now);
+    }
+
+    private static void release(TokenBucket bucket, long tokens) {
+        if (bucket != null) {
+            bucket.release(tokens);
+        }
+    }
+
+    private static TokenBucket bucketFor(AdmissionProperties.Limit limit) {
+        return limit.getRate() <= 0 ? null : new TokenBucket(limit.getRate(), limit.getBurst());
+    }
+
+    private static AdmissionStats stats(String topic, TokenBucket bucket, LongAdder admitted, LongAdder rejected, long now) {
+        return new AdmissionStats(topic,
+                bucket == null ? -1 : bucket.getRatePerSecond(),
+                bucket == null ? -1 : bucket.getBurst(),
+                bucket == null ? -1 : bucket.availableTokens(now),
+                admitted.sum(),
+                rejected.sum());
+    }
+
+    private static class TopicAdmission {
+
+        // null when the poll has no limit of its own
+        private final TokenBucket bucket;
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        TopicAdmission(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+
+    /**
+     * 429 Too Many Requests with a Retry-After of at least one second
+     */
+    public static class AdmissionRejectedException extends ResponseStatusException {
+
+        private final long retryAfterSeconds;
+
+        public AdmissionRejectedException(String limit, long waitNanos) {
+            super(HttpStatus.TOO_MANY_REQUESTS, "Over the " + limit + " publish rate limit");
+            this.retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return headers;
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.project.broker.service;
 
+import com.project.broker.model.LeaseGrant;
+import com.project.broker.model.PollResults;
+import com.project.broker.model.ReplicationBatch;
+import com.project.broker.model.ReplicationChange;
+import com.project.broker.model.SubscriberRegistry;
+import com.project.broker.model.TopicUpdate;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.kafka.listener.MessageListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.KafkaMessageListenerContainer;
 import org.apache.kafka.clients.admin.AdminClient;
-import org.apache.kafka.clients.admin.ListTopicsResult;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 
@@ -26,9 +32,14 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class BrokerService {
 
     private final RestTemplate restTemplate;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final DeliveryTracker deliveryTracker;
     private final AdminClient adminClient;
     private final ConsumerFactory<String, String> consumerFactory;
+    private final TopicMetadataCache topicMetadataCache;
+    private final ReplicationLog replicationLog;
+    private final VoteViewService voteViewService;
+    private final LeaseService leaseService;
+    private final PushService pushService;
 
     @Value("${coordinator.url}")
     private String coordinatorUrl;
@@ -36,23 +47,45 @@ public class BrokerService {
     @Value("${server.port}")
     private int port;
 
+    @Value("${kafka.topic.partitions:1}")
+    private int topicPartitions;
+
+    @Value("${kafka.topic.replication-factor:1}")
+    private short topicReplicationFactor;
+
     private String leader;
     private List<String> brokers = new ArrayList<>();
-    private Set<String> topics = new HashSet<>();
-    private Map<String, List<String>> messages = new HashMap<>();
-    private Map<String, List<String>> subscribers = new HashMap<>();
+    private final SubscriberRegistry subscribers = new SubscriberRegistry();
     private long logicalClock = 0;
+    // Held while changing replicated state, so log order matches version order and snapshots are consistent
+    private final Object stateLock = new Object();
+    // Position in the leader's replication log this follower has applied up to
+    private String replicatedLogId;
+    private long replicatedVersion = -1;
+    // Whether this broker was the leader at the last lease housekeeping tick
+    private boolean leadingLeases;
     private final AtomicBoolean readyToReceiveMessages = new AtomicBoolean(false);
     private final AtomicBoolean heartbeatStarted = new AtomicBoolean(false);
 
     public BrokerService(RestTemplate restTemplate, 
-                         KafkaTemplate<String, String> kafkaTemplate,
+                         DeliveryTracker deliveryTracker,
                          AdminClient adminClient,
-                         ConsumerFactory<String, String> consumerFactory) {
+                         ConsumerFactory<String, String> consumerFactory,
+                         TopicMetadataCache topicMetadataCache,
+                         ReplicationLog replicationLog,
+                         VoteViewService voteViewService,
+                         LeaseService leaseService,
+                         PushService pushService) {
         this.restTemplate = restTemplate;
-        this.kafkaTemplate = kafkaTemplate;
+        this.deliveryTracker = deliveryTracker;
         this.adminClient = adminClient;
         this.consumerFactory = consumerFactory;
+        this.topicMetadataCache = topicMetadataCache;
+        this.replicationLog = replicationLog;
+        this.voteViewService = voteViewService;
+        this.leaseService = leaseService;
+        this.pushService = pushService;
+        voteViewService.setUpdateListener(this::pushUpdate);
     }
 
     @PostConstruct
@@ -104,21 +137,72 @@ public class BrokerService {
         return readyToReceiveMessages.get();
     }
 
+    /**
+     * Whether the subscriber holds a lease, i.e. renewed it within the lease ttl
+     */
     public boolean isSubscriberAlive(String subscriberUrl) {
-        try {
-            restTemplate.getForObject(subscriberUrl + "/api/ping?timestamp=" + logicalClock, String.class);
-            return true;
-        } catch (Exception e) {
-            return false;
+        return leaseService.isActive(subscriberUrl);
+    }
+
+    public LeaseGrant renewLeases(List<String> subscriberUrls) {
+        incrementClock();
+        return leaseService.renew(subscriberUrls);
+    }
+
+    /**
+     * Gives up a subscriber's lease and with it all of its subscriptions
+     */
+    public void releaseLease(String subscriberUrl) {
+        incrementClock();
+        leaseService.release(subscriberUrl);
+        removeSubscriptions(subscriberUrl, null);
+    }
+
+    /**
+     * Drops the subscriptions of subscribers whose lease ran out. Only the
+     * leader keeps leases, since that is where subscribers renew them; the
+     * removals reach followers through replication. A broker that just
+     * became the leader gives every known subscriber one full ttl to renew.
+     */
+    @Scheduled(fixedDelayString = "${broker.lease.tick-ms:1000}")
+    public void expireLeases() {
+        if (!("http://localhost:" + port).equals(leader)) {
+            leadingLeases = false;
+            leaseService.clear();
+            pushService.clear();
+            return;
+        }
+        if (!leadingLeases) {
+            leadingLeases = true;
+            leaseService.adopt(subscribers.getSubscribers());
+        }
+        for (String subscriberUrl : leaseService.expire()) {
+            removeSubscriptions(subscriberUrl, null);
+            System.out.println("Lease of subscriber " + subscriberUrl + " expired, dropped its subscriptions");
+        }
+    }
+
+    /**
+     * Called by the vote view with a poll's new votes. The leader queues
+     * them for every subscriber of the poll; followers push nothing, since
+     * subscribers register with the leader.
+     */
+    private void pushUpdate(TopicUpdate update) {
+        if (!("http://localhost:" + port).equals(leader)) {
+            return;
+        }
+        List<String> subscriberUrls = subscribers.getSubscribers(update.getTopic());
+        if (!subscriberUrls.isEmpty()) {
+            pushService.publish(subscriberUrls, update, incrementClock());
         }
     }
 
     public Map<String, List<String>> getSubscribersWithTopics() {
         incrementClock();
-        return subscribers;
+        return subscribers.snapshot();
     }
 
-    @Scheduled(fixedRate = 1000)
+    @Scheduled(fixedDelay = 1000)
     public void sendHeartbeat() {
         // Only send heartbeats if the broker is ready and heartbeat has been started
         if (!readyToReceiveMessages.get() || !heartbeatStarted.get()) {
@@ -136,7 +220,7 @@ public class BrokerService {
         }
     }
 
-    @Scheduled(fixedRate = 3000)
+    @Scheduled(fixedDelay = 3000)
     public void updateLeaderAndBrokers() {
         incrementClock();
         try {
@@ -149,25 +233,79 @@ public class BrokerService {
         }
     }
 
-    @Scheduled(fixedRate = 1000)
+    /**
+     * Pulls the changes the leader made since the last sync, in batches
+     * until caught up. Nothing but an empty batch is transferred while the
+     * leader's state is unchanged.
+     */
+    @Scheduled(fixedDelay = 1000)
     public void syncDataWithLeader() {
         incrementClock();
-        if (!("http://localhost:" + port).equals(leader)) {
-            try {
-                String leaderUrl = leader + "/api/data?timestamp=" + logicalClock;
-                Map<String, Object> leaderData = restTemplate.getForObject(leaderUrl, Map.class);
-                updateInMemoryData(leaderData);
-                System.out.println("Synchronized data with leader broker at: " + leaderUrl);
-            } catch (Exception e) {
-                e.printStackTrace();
+        if (leader == null || ("http://localhost:" + port).equals(leader)) {
+            return;
+        }
+        try {
+            ReplicationBatch batch;
+            do {
+                String leaderUrl = leader + "/api/replication?since=" + replicatedVersion
+                        + "&logId=" + (replicatedLogId == null ? "" : replicatedLogId)
+                        + "&timestamp=" + logicalClock;
+                batch = restTemplate.getForObject(leaderUrl, ReplicationBatch.class);
+                if (batch == null) {
+                    return;
+                }
+                applyReplicationBatch(batch);
+            } while (batch.isHasMore());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void applyReplicationBatch(ReplicationBatch batch) {
+        if (batch.isSnapshot()) {
+            // Topics come from Kafka itself; the leader knowing one we do not just means our list is stale
+            if (!topicMetadataCache.getTopicNames().containsAll(batch.getTopics())) {
+                topicMetadataCache.invalidate();
             }
+            synchronized (stateLock) {
+                subscribers.replaceAll(batch.getSubscribers());
+            }
+            System.out.println("Loaded snapshot from leader broker " + leader + " at version " + batch.getVersion());
+        } else if (!batch.getChanges().isEmpty()) {
+            synchronized (stateLock) {
+                for (ReplicationChange change : batch.getChanges()) {
+                    switch (change.getType()) {
+                        case ADD_TOPIC -> topicMetadataCache.invalidate();
+                        case ADD_SUBSCRIBER -> subscribers.add(change.getTopic(), change.getSubscriberUrl());
+                        case REMOVE_SUBSCRIBER -> subscribers.remove(change.getTopic(), change.getSubscriberUrl());
+                    }
+                }
+            }
+            System.out.println("Applied " + batch.getChanges().size() + " changes from leader broker " + leader
+                    + " up to version " + batch.getVersion());
         }
+        replicatedLogId = batch.getLogId();
+        replicatedVersion = batch.getVersion();
     }
 
-    private void updateInMemoryData(Map<String, Object> data) {
-        this.topics = new HashSet<>((List<String>) data.get("topics"));
-        this.messages = (Map<String, List<String>>) data.get("messages");
-        this.subscribers = (Map<String, List<String>>) data.get("subscribers");
+    /**
+     * Changes after {@code since} in this broker's log, or a snapshot of
+     * its state when the log cannot provide them
+     */
+    public ReplicationBatch getReplicationBatch(String logId, long since) {
+        incrementClock();
+        synchronized (stateLock) {
+            if (replicationLog.getId().equals(logId)) {
+                List<ReplicationChange> changes = replicationLog.since(since);
+                if (changes != null) {
+                    boolean hasMore = !changes.isEmpty()
+                            && changes.get(changes.size() - 1).getVersion() < replicationLog.getHeadVersion();
+                    return ReplicationBatch.changes(logId, since, changes, hasMore);
+                }
+            }
+            return ReplicationBatch.snapshot(replicationLog.getId(), replicationLog.getHeadVersion(),
+                    new ArrayList<>(topicMetadataCache.getTopicNames()), subscribers.snapshot());
+        }
     }
 
     private void registerBroker() {
@@ -185,7 +323,7 @@ public class BrokerService {
 
     public boolean isSubscriberSubscribedToTopic(String subscriberUrl, String topic) {
         incrementClock();
-        return subscribers.containsKey(topic) && subscribers.get(topic).contains(subscriberUrl);
+        return subscribers.isSubscribed(topic, subscriberUrl);
     }
 
     public List<String> getBrokers() {
@@ -200,27 +338,42 @@ public class BrokerService {
 
     public Set<String> getTopics() {
         incrementClock();
-        return topics;
+        return topicMetadataCache.getTopicNames();
     }
 
+    /**
+     * Recent votes of every poll, from this broker's own view of Kafka
+     */
     public Map<String, List<String>> getMessages() {
         incrementClock();
+        Map<String, List<String>> messages = new HashMap<>();
+        for (String topic : voteViewService.getTopics()) {
+            messages.put(topic, voteViewService.getRecentVotes(topic));
+        }
         return messages;
     }
 
     public List<String> getMessages(String topic) {
         incrementClock();
-        return messages.getOrDefault(topic, new ArrayList<>());
+        return voteViewService.getRecentVotes(topic);
+    }
+
+    public PollResults getResults(String topic) {
+        incrementClock();
+        return voteViewService.getResults(topic);
     }
 
     public void addTopic(String topic) {
         incrementClock();
         try {
             // Create a new Kafka topic
-            NewTopic newTopic = new NewTopic(topic, 1, (short) 1);
+            NewTopic newTopic = new NewTopic(topic, topicPartitions, topicReplicationFactor);
             adminClient.createTopics(Collections.singleton(newTopic));
-            topics.add(topic);
-            System.out.println("Created Kafka topic: " + topic);
+            topicMetadataCache.record(topic, topicPartitions);
+            synchronized (stateLock) {
+                replicationLog.append(new ReplicationChange(incrementClock(), ReplicationChange.Type.ADD_TOPIC, topic, null));
+            }
+            System.out.println("Created Kafka topic: " + topic + " with " + topicPartitions + " partitions");
         } catch (Exception e) {
             System.out.println("Error creating Kafka topic: " + e.getMessage());
         }
@@ -230,20 +383,25 @@ public class BrokerService {
         incrementClock();
         try {
             // Send message to Kafka topic
-            kafkaTemplate.send(topic, message);
+            deliveryTracker.send(topic, message).whenComplete((result, error) -> {
+                if (error != null) {
+                    System.out.println("Error sending message to Kafka: " + error.getMessage());
+                }
+            });
             System.out.println("Message sent to Kafka topic " + topic + ": " + message);
+        } catch (DeliveryTracker.InFlightLimitExceededException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
         } catch (Exception e) {
             System.out.println("Error sending message to Kafka: " + e.getMessage());
         }
     }
 
+    /**
+     * Every distinct subscriber URL, whatever it follows
+     */
     public List<String> getSubscribers() {
         incrementClock();
-        List<String> allSubscribers = new ArrayList<>();
-        for (List<String> topicSubscribers : subscribers.values()) {
-            allSubscribers.addAll(topicSubscribers);
-        }
-        return allSubscribers;
+        return subscribers.getSubscribers();
     }
 
     public String getCoordinatorUrl() {
@@ -264,52 +422,76 @@ public class BrokerService {
     }
 
     public void addSubscriber(String topic, String subscriberUrl) {
-        incrementClock();
-        subscribers.computeIfAbsent(topic, k -> new ArrayList<>()).add(subscriberUrl);
+        synchronized (stateLock) {
+            long version = incrementClock();
+            leaseService.renew(List.of(subscriberUrl));
+            if (subscribers.add(topic, subscriberUrl)) {
+                replicationLog.append(new ReplicationChange(version, ReplicationChange.Type.ADD_SUBSCRIBER, topic, subscriberUrl));
+            }
+        }
     }
 
     public void removeSubscriber(String topic, String subscriberUrl) {
-        incrementClock();
-        List<String> topicSubscribers = subscribers.get(topic);
-        if (topicSubscribers != null) {
-            topicSubscribers.remove(subscriberUrl);
-            if (topicSubscribers.isEmpty()) {
-                subscribers.remove(topic);
+        synchronized (stateLock) {
+            long version = incrementClock();
+            if (subscribers.remove(topic, subscriberUrl)) {
+                replicationLog.append(new ReplicationChange(version, ReplicationChange.Type.REMOVE_SUBSCRIBER, topic, subscriberUrl));
+            }
+        }
+        forgetPushes(subscriberUrl, List.of(topic));
+    }
+
+    /**
+     * Subscribes one subscriber to many polls at once
+     */
+    public void addSubscriptions(String subscriberUrl, List<String> topics) {
+        leaseService.renew(List.of(subscriberUrl));
+        synchronized (stateLock) {
+            for (String topic : subscribers.addAll(subscriberUrl, topics)) {
+                replicationLog.append(new ReplicationChange(incrementClock(), ReplicationChange.Type.ADD_SUBSCRIBER, topic, subscriberUrl));
+            }
+        }
+    }
+
+    /**
+     * Unsubscribes one subscriber from the given polls, or from every poll when {@code topics} is null
+     */
+    public void removeSubscriptions(String subscriberUrl, List<String> topics) {
+        List<String> removed;
+        synchronized (stateLock) {
+            removed = subscribers.removeAll(subscriberUrl, topics);
+            for (String topic : removed) {
+                replicationLog.append(new ReplicationChange(incrementClock(), ReplicationChange.Type.REMOVE_SUBSCRIBER, topic, subscriberUrl));
             }
         }
+        forgetPushes(subscriberUrl, removed);
+    }
+
+    private void forgetPushes(String subscriberUrl, List<String> topics) {
+        pushService.forget(subscriberUrl, subscribers.getTopics(subscriberUrl).isEmpty() ? null : topics);
+    }
+
+    public List<String> getSubscriptions(String subscriberUrl) {
+        incrementClock();
+        return subscribers.getTopics(subscriberUrl);
     }
 
     public List<String> getSubscribers(String topic) {
         incrementClock();
-        return subscribers.getOrDefault(topic, new ArrayList<>());
+        return subscribers.getSubscribers(topic);
     }
 
     public Map<String, Object> getAllData() {
         incrementClock();
         Map<String, Object> data = new HashMap<>();
-        data.put("topics", new ArrayList<>(topics));
-        data.put("messages", new HashMap<>(messages));
-        data.put("subscribers", new HashMap<>(subscribers));
+        data.put("topics", new ArrayList<>(topicMetadataCache.getTopicNames()));
+        data.put("messages", getMessages());
+        data.put("subscribers", subscribers.snapshot());
         return data;
     }
 
-    @Scheduled(fixedRate = 5000)
-    public void syncTopicsWithKafka() {
-        incrementClock();
-        try {
-            ListTopicsResult listTopicsResult = adminClient.listTopics();
-            Set<String> kafkaTopics = listTopicsResult.names().get();
-            // Remove internal Kafka topics
-            kafkaTopics.removeIf(topic -> topic.startsWith("__"));
-            this.topics = new HashSet<>(kafkaTopics);
-            System.out.println("Synced topics with Kafka: " + topics);
-        } catch (Exception e) {
-            System.out.println("Error syncing topics with Kafka: " + e.getMessage());
-        }
-    }
-
-    private synchronized void incrementClock() {
-        logicalClock++;
+    private synchronized long incrementClock() {
+        return ++logicalClock;
     }
 
     public synchronized void updateClock(long receivedTimestamp) {
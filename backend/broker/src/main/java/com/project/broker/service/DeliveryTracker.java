@@ -0,0 +1,127 @@
+package com.project.broker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends records through the {@link KafkaTemplate} while keeping count of
+ * what is still waiting for an acknowledgement.
+ *
+ * At most maxInFlight records may be unacknowledged at once. A send that
+ * finds the budget used up waits for acknowledgements to free a slot, and
+ * is rejected if none frees up within acquireTimeout; callers are slowed
+ * down instead of piling records up in the producer's buffer.
+ */
+public class DeliveryTracker {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Duration acquireTimeout;
+    private final MeterRegistry meterRegistry;
+    private final String prefix;
+    private final Timer ackLatency;
+    private final Counter sent;
+    private final Counter rejected;
+
+    public DeliveryTracker(KafkaTemplate<String, String> kafkaTemplate,
+                           int maxInFlight,
+                           Duration acquireTimeout,
+                           MeterRegistry meterRegistry,
+                           String prefix) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeout = acquireTimeout;
+        this.meterRegistry = meterRegistry;
+        this.prefix = prefix;
+        Gauge.builder(prefix + ".producer.inflight", this, DeliveryTracker::getInFlight)
+                .description("Records sent to Kafka and not yet acknowledged")
+                .register(meterRegistry);
+        this.ackLatency = Timer.builder(prefix + ".producer.ack.latency")
+                .description("Time from send until Kafka acknowledged the record")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sent = Counter.builder(prefix + ".producer.sent")
+                .description("Records acknowledged by Kafka")
+                .register(meterRegistry);
+        this.rejected = Counter.builder(prefix + ".producer.rejected")
+                .description("Sends refused because the in-flight budget stayed exhausted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends a record once an in-flight slot is available
+     *
+     * @throws InFlightLimitExceededException if no slot frees up within the acquire timeout
+     */
+    public CompletableFuture<SendResult<String, String>> send(String topic, String value) {
+        acquire();
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, String>> future;
+        try {
+            future = kafkaTemplate.send(topic, value);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            recordFailure(e);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> {
+            inFlight.release();
+            if (error == null) {
+                ackLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                sent.increment();
+            } else {
+                recordFailure(error);
+            }
+        });
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private void acquire() {
+        try {
+            if (inFlight.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new InFlightLimitExceededException(maxInFlight);
+    }
+
+    private void recordFailure(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        Counter.builder(prefix + ".producer.failures")
+                .description("Records Kafka failed to store, by cause")
+                .tag("exception", cause.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Thrown when a send cannot get an in-flight slot in time
+     */
+    public static class InFlightLimitExceededException extends RuntimeException {
+
+        public InFlightLimitExceededException(int maxInFlight) {
+            super("More than " + maxInFlight + " records are waiting for Kafka, try again later");
+        }
+    }
+}
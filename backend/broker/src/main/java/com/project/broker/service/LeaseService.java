@@ -0,0 +1,161 @@
+package com.project.broker.service;
+
+import com.project.broker.model.LeaseGrant;
+import com.project.broker.model.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leases that keep subscribers registered: a subscriber renews its lease
+ * before {@code ttl} runs out, and once it stops doing so the lease expires
+ * and the broker drops its subscriptions.
+ *
+ * Expiry runs on a {@link TimingWheel}. Renewing only moves the lease's
+ * deadline forward; when the wheel reaches the old deadline the lease is
+ * put back for the new one. So renewals never touch the wheel, and each
+ * housekeeping tick only looks at leases that were due then.
+ */
+@Service
+public class LeaseService {
+
+    private final Duration ttl;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final TimingWheel wheel;
+    private final Counter granted;
+    private final Counter renewed;
+    private final Counter expired;
+    private final Counter released;
+
+    public LeaseService(@Value("${broker.lease.ttl:30s}") Duration ttl,
+                        @Value("${broker.lease.tick-ms:1000}") long tickMs,
+                        @Value("${broker.lease.wheel-slots:512}") int wheelSlots,
+                        MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.wheel = new TimingWheel(Duration.ofMillis(tickMs).toNanos(), wheelSlots, System.nanoTime());
+        Gauge.builder("broker.leases.active", leases, Map::size)
+                .description("Subscriber leases currently held")
+                .register(meterRegistry);
+        this.granted = Counter.builder("broker.leases.granted").description("Leases granted to new subscribers")
+                .register(meterRegistry);
+        this.renewed = Counter.builder("broker.leases.renewed").description("Lease renewals")
+                .register(meterRegistry);
+        this.expired = Counter.builder("broker.leases.expired").description("Leases that ran out without renewal")
+                .register(meterRegistry);
+        this.released = Counter.builder("broker.leases.released").description("Leases given up by their subscriber")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Extends the lease of each subscriber, granting one to those without
+     */
+    public LeaseGrant renew(Collection<String> subscriberUrls) {
+        long expiresAt = System.nanoTime() + ttl.toNanos();
+        int grantedCount = 0;
+        int renewedCount = 0;
+        for (String subscriberUrl : subscriberUrls) {
+            Lease lease = leases.get(subscriberUrl);
+            if (lease != null) {
+                lease.expiresAt = expiresAt;
+                renewedCount++;
+            } else {
+                grant(subscriberUrl, expiresAt);
+                grantedCount++;
+            }
+        }
+        granted.increment(grantedCount);
+        renewed.increment(renewedCount);
+        return new LeaseGrant(ttl.toMillis(), grantedCount, renewedCount);
+    }
+
+    /**
+     * Grants a full lease to every subscriber that has none, e.g. those
+     * registered under a previous leader, so they get one ttl to renew
+     */
+    public void adopt(Collection<String> subscriberUrls) {
+        long expiresAt = System.nanoTime() + ttl.toNanos();
+        for (String subscriberUrl : subscriberUrls) {
+            if (!leases.containsKey(subscriberUrl)) {
+                grant(subscriberUrl, expiresAt);
+            }
+        }
+    }
+
+    public void release(String subscriberUrl) {
+        if (leases.remove(subscriberUrl) != null) {
+            released.increment();
+        }
+    }
+
+    public boolean isActive(String subscriberUrl) {
+        Lease lease = leases.get(subscriberUrl);
+        return lease != null && lease.expiresAt - System.nanoTime() > 0;
+    }
+
+    /**
+     * Advances the wheel and returns the subscribers whose lease ran out
+     */
+    public List<String> expire() {
+        long now = System.nanoTime();
+        List<String> expiredUrls = new ArrayList<>();
+        synchronized (wheel) {
+            for (String subscriberUrl : wheel.advance(now)) {
+                Lease lease = leases.get(subscriberUrl);
+                if (lease == null) {
+                    // Released since it was scheduled
+                    continue;
+                }
+                if (lease.expiresAt - now > 0) {
+                    wheel.schedule(subscriberUrl, lease.expiresAt);
+                } else if (leases.remove(subscriberUrl, lease)) {
+                    expiredUrls.add(subscriberUrl);
+                }
+            }
+        }
+        expired.increment(expiredUrls.size());
+        return expiredUrls;
+    }
+
+    /**
+     * Forgets every lease; a broker that is not the leader does not keep any
+     */
+    public void clear() {
+        if (leases.isEmpty()) {
+            return;
+        }
+        synchronized (wheel) {
+            leases.clear();
+            wheel.clear();
+        }
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    private void grant(String subscriberUrl, long expiresAt) {
+        synchronized (wheel) {
+            if (leases.putIfAbsent(subscriberUrl, new Lease(expiresAt)) == null) {
+                wheel.schedule(subscriberUrl, expiresAt);
+            }
+        }
+    }
+
+    private static class Lease {
+
+        private volatile long expiresAt;
+
+        Lease(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
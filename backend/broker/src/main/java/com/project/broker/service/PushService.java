@@ -0,0 +1,287 @@
+package com.project.broker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.project.broker.model.PollResults;
+import com.project.broker.model.PushQueue;
+import com.project.broker.model.TopicUpdate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Pushes poll updates to subscribers instead of waiting for them to pull.
+ *
+ * Each subscriber has its own queue holding at most one pending update per
+ * poll: updates that arrive while one is waiting are merged into it, so a
+ * subscriber gets one coalesced update per poll per batch. A queue is sent
+ * as one POST to {subscriber}/api/push once it holds batch-size entries or
+ * on the next linger tick, whichever comes first.
+ *
+ * Requests are asynchronous and every subscriber has at most one in flight,
+ * so a slow subscriber only delays its own queue. Meanwhile its updates keep
+ * merging, and once its queue holds queue-capacity votes the oldest are
+ * left out. A failed batch is merged back and retried with backoff; after
+ * max-retries it is given up and replaced by snapshots.
+ *
+ * A failed request may still have been applied, so retries can replay
+ * deltas. Each update names the range of votes it covers, and the
+ * subscriber skips what it already has; when ranges do not line up, e.g.
+ * after a retry merged with newer updates or a subscriber restart, it
+ * answers with the polls it needs a snapshot of, which are then queued.
+ */
+@Service
+public class PushService {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final VoteViewService voteViewService;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final boolean enabled;
+    private final boolean includeVotes;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final int maxRetries;
+    private final long retryBackoffNanos;
+    private final long maxRetryBackoffNanos;
+    // Requests in flight across all subscribers; a queue that finds none free waits for the next tick
+    private final Semaphore inFlight;
+    private final Map<String, SubscriberQueue> queues = new ConcurrentHashMap<>();
+    private final Counter batchesSent;
+    private final Counter retries;
+    private final Counter batchesDropped;
+    private final Counter votesDropped;
+
+    public PushService(VoteViewService voteViewService,
+                       @Value("${broker.push.enabled:true}") boolean enabled,
+                       @Value("${broker.push.include-votes:true}") boolean includeVotes,
+                       @Value("${broker.push.batch-size:500}") int batchSize,
+                       @Value("${broker.push.queue-capacity:10000}") int queueCapacity,
+                       @Value("${broker.push.max-in-flight:256}") int maxInFlight,
+                       @Value("${broker.push.max-retries:5}") int maxRetries,
+                       @Value("${broker.push.retry-backoff:200ms}") Duration retryBackoff,
+                       @Value("${broker.push.max-retry-backoff:10s}") Duration maxRetryBackoff,
+                       @Value("${rest.client.connect-timeout:2s}") Duration connectTimeout,
+                       @Value("${rest.client.read-timeout:5s}") Duration requestTimeout,
+                       MeterRegistry meterRegistry) {
+        this.voteViewService = voteViewService;
+        this.enabled = enabled;
+        this.includeVotes = includeVotes;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        this.maxRetries = maxRetries;
+        this.retryBackoffNanos = retryBackoff.toNanos();
+        this.maxRetryBackoffNanos = maxRetryBackoff.toNanos();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .build();
+        Gauge.builder("broker.push.subscribers", queues, Map::size)
+                .description("Subscribers with a push queue")
+                .register(meterRegistry);
+        this.batchesSent = Counter.builder("broker.push.batches.sent").description("Batches delivered to subscribers")
+                .register(meterRegistry);
+        this.retries = Counter.builder("broker.push.retries").description("Batches that failed and were queued again")
+                .register(meterRegistry);
+        this.batchesDropped = Counter.builder("broker.push.batches.dropped").description("Batches given up after max-retries")
+                .register(meterRegistry);
+        this.votesDropped = Counter.builder("broker.push.votes.dropped").description("Votes left out of full queues")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a poll's new votes for each subscriber, sending right away to
+     * those whose queue reached batch-size. Must be called while the vote
+     * view holds the poll's lock, so a snapshot taken here covers exactly the
+     * votes announced so far.
+     */
+    public void publish(Collection<String> subscriberUrls, TopicUpdate update, long timestamp) {
+        if (!enabled) {
+            return;
+        }
+        for (String subscriberUrl : subscriberUrls) {
+            SubscriberQueue queue = queues.computeIfAbsent(subscriberUrl, SubscriberQueue::new);
+            boolean full;
+            synchronized (queue) {
+                queue.offer(update, timestamp);
+                full = queue.updates.size() >= batchSize;
+            }
+            if (full) {
+                send(queue);
+            }
+        }
+    }
+
+    /**
+     * Drops what is queued for the given polls, or the subscriber's whole
+     * queue when {@code topics} is null
+     */
+    public void forget(String subscriberUrl, Collection<String> topics) {
+        if (topics == null) {
+            queues.remove(subscriberUrl);
+            return;
+        }
+        SubscriberQueue queue = queues.get(subscriberUrl);
+        if (queue != null) {
+            synchronized (queue) {
+                queue.updates.drop(topics);
+            }
+        }
+    }
+
+    /**
+     * Drops every queue; only the leader pushes
+     */
+    public void clear() {
+        queues.clear();
+    }
+
+    /**
+     * Sends every queue that has something waiting
+     */
+    @Scheduled(fixedDelayString = "${broker.push.linger-ms:100}")
+    public void flush() {
+        queues.values().forEach(this::send);
+    }
+
+    private void send(SubscriberQueue queue) {
+        List<TopicUpdate> batch;
+        long timestamp;
+        synchronized (queue) {
+            if (queue.sending || queue.updates.isEmpty() || System.nanoTime() - queue.retryAt < 0
+                    || !inFlight.tryAcquire()) {
+                return;
+            }
+            queue.sending = true;
+            batch = queue.updates.take();
+            timestamp = queue.updates.getTimestamp();
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(queue.subscriberUrl + "/api/push?timestamp=" + timestamp))
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(batch)))
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (error != null || response.statusCode() / 100 != 2) {
+                            completed(queue, batch, false, List.of());
+                        } else {
+                            completed(queue, batch, true, snapshotsRequested(response.body()));
+                        }
+                    });
+        } catch (Exception e) {
+            inFlight.release();
+            completed(queue, batch, false, List.of());
+        }
+    }
+
+    private void completed(SubscriberQueue queue, List<TopicUpdate> batch, boolean delivered, List<String> resync) {
+        boolean more;
+        synchronized (queue) {
+            queue.sending = false;
+            if (delivered) {
+                queue.failures = 0;
+                batchesSent.increment();
+            } else if (++queue.failures <= maxRetries) {
+                votesDropped.increment(queue.updates.requeue(batch));
+                long backoff = retryBackoffNanos << Math.min(queue.failures - 1, 20);
+                queue.retryAt = System.nanoTime() + Math.min(backoff, maxRetryBackoffNanos);
+                retries.increment();
+            } else {
+                resync = batch.stream().map(TopicUpdate::getTopic).toList();
+                queue.failures = 0;
+                queue.retryAt = System.nanoTime() + maxRetryBackoffNanos;
+                batchesDropped.increment();
+                System.out.println("Gave up pushing " + resync + " to subscriber " + queue.subscriberUrl
+                        + " after " + maxRetries + " retries");
+            }
+        }
+        resync.forEach(topic -> queueSnapshot(queue, topic));
+        synchronized (queue) {
+            more = delivered && queue.updates.size() >= batchSize;
+        }
+        if (more) {
+            send(queue);
+        }
+    }
+
+    /**
+     * Replaces what is queued for a poll with a snapshot. Queued while the
+     * poll's view is locked, so deltas announced later apply on top of it.
+     */
+    private void queueSnapshot(SubscriberQueue queue, String topic) {
+        voteViewService.withResults(topic, results -> {
+            synchronized (queue) {
+                queue.updates.markSynced(topic);
+                votesDropped.increment(queue.updates.merge(new TopicUpdate(topic, true, results.getTotalVotes(),
+                        results.getTotalVotes(), results.getCounts(), List.of())));
+            }
+        });
+    }
+
+    private static List<String> snapshotsRequested(byte[] body) {
+        if (body == null || body.length == 0) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(body, new TypeReference<List<String>>() {});
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        httpClient.shutdownNow();
+    }
+
+    /**
+     * A subscriber's {@link PushQueue} and the state of its deliveries.
+     * Guarded by its own monitor, which is only held to merge or take
+     * updates, never across a request.
+     */
+    private class SubscriberQueue {
+
+        private final String subscriberUrl;
+        private final PushQueue updates = new PushQueue(queueCapacity, includeVotes);
+        private boolean sending;
+        private int failures;
+        private long retryAt = System.nanoTime();
+
+        private SubscriberQueue(String subscriberUrl) {
+            this.subscriberUrl = subscriberUrl;
+        }
+
+        private void offer(TopicUpdate update, long timestamp) {
+            String topic = update.getTopic();
+            if (updates.markSynced(topic)) {
+                PollResults results = voteViewService.getResults(topic);
+                update = new TopicUpdate(topic, true, results.getTotalVotes(), results.getTotalVotes(),
+                        results.getCounts(), update.getVotes());
+            }
+            votesDropped.increment(updates.merge(update));
+            updates.advanceTimestamp(timestamp);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.project.broker.service;
+
+import com.project.broker.model.ReplicationChange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The most recent changes to this broker's replicated state, in version
+ * order, for followers to catch up from.
+ *
+ * Only the last {@code maxEntries} changes are kept (a ring buffer); a
+ * follower whose version is older than that gets a snapshot instead. The
+ * log ID is new every time the broker starts, so versions are only
+ * compared within one leader's log.
+ */
+@Service
+public class ReplicationLog {
+
+    private final String id = UUID.randomUUID().toString();
+    private final ReplicationChange[] entries;
+    private final int maxBatch;
+    private int first;
+    private int size;
+    // Changes up to and including this version are no longer in the log
+    private long truncatedThrough;
+    private long headVersion;
+
+    public ReplicationLog(@Value("${broker.replication.max-log-entries:10000}") int maxEntries,
+                          @Value("${broker.replication.max-batch:1000}") int maxBatch) {
+        this.entries = new ReplicationChange[maxEntries];
+        this.maxBatch = maxBatch;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Appends a change; its version must be higher than any appended before
+     */
+    public synchronized void append(ReplicationChange change) {
+        if (size == entries.length) {
+            truncatedThrough = entries[first].getVersion();
+            entries[first] = null;
+            first = (first + 1) % entries.length;
+            size--;
+        }
+        entries[(first + size) % entries.length] = change;
+        size++;
+        headVersion = change.getVersion();
+    }
+
+    /**
+     * Up to {@code maxBatch} changes after {@code version}, oldest first, or
+     * null if the log no longer reaches back that far
+     */
+    public synchronized List<ReplicationChange> since(long version) {
+        if (version < truncatedThrough || version > headVersion) {
+            return null;
+        }
+        // First entry with a higher version
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entry(middle).getVersion() <= version) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int count = Math.min(size - low, maxBatch);
+        List<ReplicationChange> changes = new ArrayList<>(count);
+        for (int i = low; i < low + count; i++) {
+            changes.add(entry(i));
+        }
+        return changes;
+    }
+
+    public synchronized long getHeadVersion() {
+        return headVersion;
+    }
+
+    private ReplicationChange entry(int index) {
+        return entries[(first + index) % entries.length];
+    }
+}
@@ -0,0 +1,248 @@
+package com.project.broker.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.broker.model.PollResults;
+import com.project.broker.model.TopicUpdate;
+import com.project.broker.model.TopicView;
+import com.project.broker.model.VoteRecord;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Reads every poll topic into a {@link TopicView} per poll, so the broker
+ * can answer /api/messages and /api/results itself instead of relaying
+ * state copied from the leader. Every broker builds its own view from
+ * Kafka; nothing about it is replicated.
+ *
+ * One listener container is assigned all partitions of all poll topics and
+ * starts each from the beginning. When topics appear, disappear or gain
+ * partitions it is reassigned, and partitions already read resume from
+ * where their view left off.
+ *
+ * An update listener, if set, is told about each poll's new votes per
+ * batch read, while that poll's view is still locked.
+ */
+public class VoteViewService {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ConsumerFactory<String, VoteRecord> consumerFactory;
+    private final TopicMetadataCache topicMetadataCache;
+    private final int recentVotes;
+    private final int concurrency;
+    private final boolean enabled;
+    private final Map<String, TopicView> views = new ConcurrentHashMap<>();
+    // Held while the container is replaced; a monitor would pin virtual threads during stop()
+    private final ReentrantLock containerLock = new ReentrantLock();
+    private ConcurrentMessageListenerContainer<String, VoteRecord> container;
+    // Topic -> partitions the current container is assigned
+    private Map<String, Integer> assigned = Map.of();
+    private volatile Consumer<TopicUpdate> updateListener;
+
+    public VoteViewService(ConsumerFactory<String, VoteRecord> consumerFactory,
+                           TopicMetadataCache topicMetadataCache,
+                           int recentVotes,
+                           int concurrency,
+                           boolean enabled) {
+        this.consumerFactory = consumerFactory;
+        this.topicMetadataCache = topicMetadataCache;
+        this.recentVotes = recentVotes;
+        this.concurrency = concurrency;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Reassigns the listener when the set of poll topics or their partition counts changed
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void syncTopics() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<String, Integer> topics = new HashMap<>();
+            for (String topic : topicMetadataCache.getTopicNames()) {
+                int partitions = topicMetadataCache.getPartitionCount(topic);
+                if (partitions > 0 && !topic.startsWith("__")) {
+                    topics.put(topic, partitions);
+                }
+            }
+            if (!topics.equals(assigned)) {
+                reassign(topics);
+            }
+        } catch (Exception e) {
+            System.out.println("Error syncing vote view topics: " + e.getMessage());
+        }
+    }
+
+    private void reassign(Map<String, Integer> topics) {
+        containerLock.lock();
+        try {
+            if (container != null) {
+                container.stop();
+                container = null;
+            }
+            views.keySet().retainAll(topics.keySet());
+            List<TopicPartitionOffset> partitions = new ArrayList<>();
+            topics.forEach((topic, count) -> {
+                TopicView view = views.computeIfAbsent(topic, k -> new TopicView(k, recentVotes));
+                for (int partition = 0; partition < count; partition++) {
+                    long nextOffset = view.nextOffset(partition);
+                    partitions.add(nextOffset >= 0
+                            ? new TopicPartitionOffset(topic, partition, nextOffset)
+                            : new TopicPartitionOffset(topic, partition, TopicPartitionOffset.SeekPosition.BEGINNING));
+                }
+            });
+            assigned = topics;
+            if (partitions.isEmpty()) {
+                return;
+            }
+            ContainerProperties properties = new ContainerProperties(partitions.toArray(new TopicPartitionOffset[0]));
+            properties.setMessageListener((BatchMessageListener<String, VoteRecord>) this::apply);
+            container = new ConcurrentMessageListenerContainer<>(consumerFactory, properties);
+            container.setBeanName("vote-view");
+            container.setConcurrency(Math.min(concurrency, partitions.size()));
+            container.start();
+            System.out.println("Vote view reading " + topics.size() + " topics on " + partitions.size() + " partitions");
+        } finally {
+            containerLock.unlock();
+        }
+    }
+
+    /**
+     * Sets who is told about new votes. It runs on the listener thread with
+     * the poll's view locked, so it must not block.
+     */
+    public void setUpdateListener(Consumer<TopicUpdate> updateListener) {
+        this.updateListener = updateListener;
+    }
+
+    private void apply(List<ConsumerRecord<String, VoteRecord>> records) {
+        Map<String, List<ConsumerRecord<String, VoteRecord>>> byTopic = new LinkedHashMap<>();
+        for (ConsumerRecord<String, VoteRecord> record : records) {
+            byTopic.computeIfAbsent(record.topic(), k -> new ArrayList<>()).add(record);
+        }
+        Consumer<TopicUpdate> listener = updateListener;
+        byTopic.forEach((topic, topicRecords) -> {
+            TopicView view = views.computeIfAbsent(topic, k -> new TopicView(k, recentVotes));
+            // Held until the listener has seen the votes, so results read under it match what was announced
+            synchronized (view) {
+                Map<String, Long> deltas = new HashMap<>();
+                List<String> votes = new ArrayList<>();
+                for (ConsumerRecord<String, VoteRecord> record : topicRecords) {
+                    VoteRecord vote = record.value() != null ? record.value() : VoteRecord.ofText("");
+                    String candidate = candidateOf(vote);
+                    String text = textOf(vote);
+                    view.record(record.partition(), record.offset(), candidate, text);
+                    if (listener != null) {
+                        deltas.merge(candidate, 1L, Long::sum);
+                        votes.add(text);
+                    }
+                }
+                if (listener != null) {
+                    long totalVotes = view.getTotalVotes();
+                    listener.accept(new TopicUpdate(topic, false, totalVotes - topicRecords.size(), totalVotes, deltas, votes));
+                }
+            }
+        });
+    }
+
+    public Set<String> getTopics() {
+        return views.keySet();
+    }
+
+    /**
+     * The poll's most recent votes, oldest first; empty for an unknown poll
+     */
+    public List<String> getRecentVotes(String topic) {
+        TopicView view = views.get(topic);
+        return view == null ? new ArrayList<>() : view.getRecentVotes();
+    }
+
+    public PollResults getResults(String topic) {
+        TopicView view = views.get(topic);
+        return view == null ? new PollResults(topic, 0, Map.of()) : view.getResults();
+    }
+
+    /**
+     * Hands the poll's current results to {@code action} with its view
+     * locked, so no votes are recorded or announced until it returns
+     */
+    public void withResults(String topic, Consumer<PollResults> action) {
+        TopicView view = views.get(topic);
+        if (view == null) {
+            action.accept(new PollResults(topic, 0, Map.of()));
+            return;
+        }
+        synchronized (view) {
+            action.accept(view.getResults());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        containerLock.lock();
+        try {
+            if (container != null) {
+                container.stop();
+            }
+        } finally {
+            containerLock.unlock();
+        }
+    }
+
+    /**
+     * Binary votes name their candidate; string votes published as
+     * {"name": ..., "vote": ...} are parsed, anything else counts as is
+     */
+    private static String candidateOf(VoteRecord vote) {
+        if (!vote.isText()) {
+            return vote.getCandidate();
+        }
+        String text = vote.getText();
+        if (!text.isEmpty() && text.charAt(0) == '{') {
+            try {
+                JsonNode candidate = objectMapper.readTree(text).get("vote");
+                if (candidate != null && !candidate.isNull()) {
+                    return candidate.asText();
+                }
+            } catch (Exception e) {
+                // Not JSON after all, count the raw message
+            }
+        }
+        return text;
+    }
+
+    /**
+     * The vote in the string form /api/messages has always returned
+     */
+    private static String textOf(VoteRecord vote) {
+        if (vote.isText()) {
+            return vote.getText();
+        }
+        if (vote.getVoterId() == null) {
+            return vote.getCandidate();
+        }
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        return "{\"name\":\"" + new String(encoder.quoteAsString(vote.getVoterId()))
+                + "\",\"vote\":\"" + new String(encoder.quoteAsString(vote.getCandidate())) + "\"}";
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.broker.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PushQueueTest {
+
+    private static TopicUpdate delta(String topic, long base, Map<String, Long> deltas, String... votes) {
+        long total = base + deltas.values().stream().mapToLong(Long::longValue).sum();
+        return new TopicUpdate(topic, false, base, total, deltas, new ArrayList<>(List.of(votes)));
+    }
+
+    @Test
+    void coalescesUpdatesForAPollIntoOne() {
+        PushQueue queue = new PushQueue(100, true);
+        queue.merge(delta("poll", 10, Map.of("yes", 1L), "yes"));
+        queue.merge(delta("poll", 11, Map.of("yes", 1L, "no", 2L), "yes", "no", "no"));
+        queue.merge(delta("other", 0, Map.of("no", 1L), "no"));
+
+        TopicUpdate pending = queue.getPending("poll");
+        assertThat(pending.getBaseVotes()).isEqualTo(10);
+        assertThat(pending.getTotalVotes()).isEqualTo(14);
+        assertThat(pending.getDeltas()).isEqualTo(Map.of("yes", 2L, "no", 2L));
+        assertThat(pending.getVotes()).containsExactly("yes", "yes", "no", "no");
+        assertThat(queue.size()).isEqualTo(2 + 5);
+
+        assertThat(queue.take()).extracting(TopicUpdate::getTopic).containsExactly("poll", "other");
+        assertThat(queue.isEmpty()).isTrue();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void snapshotReplacesPendingCountsAndLaterDeltasAddToIt() {
+        PushQueue queue = new PushQueue(100, true);
+        queue.merge(delta("poll", 10, Map.of("yes", 1L)));
+        queue.merge(new TopicUpdate("poll", true, 20, 20, Map.of("yes", 12L, "no", 8L), List.of()));
+        queue.merge(delta("poll", 20, Map.of("no", 1L)));
+
+        TopicUpdate pending = queue.getPending("poll");
+        assertThat(pending.isSnapshot()).isTrue();
+        assertThat(pending.getBaseVotes()).isEqualTo(21);
+        assertThat(pending.getTotalVotes()).isEqualTo(21);
+        assertThat(pending.getDeltas()).isEqualTo(Map.of("yes", 12L, "no", 9L));
+    }
+
+    @Test
+    void leavesOutOldestVotesOverCapacityButKeepsCounts() {
+        PushQueue queue = new PushQueue(3, true);
+        assertThat(queue.merge(delta("poll", 0, Map.of("yes", 2L), "v1", "v2"))).isZero();
+        assertThat(queue.merge(delta("poll", 2, Map.of("yes", 3L), "v3", "v4", "v5"))).isEqualTo(2);
+
+        TopicUpdate pending = queue.getPending("poll");
+        assertThat(pending.getVotes()).containsExactly("v3", "v4", "v5");
+        assertThat(pending.getVotesDropped()).isEqualTo(2);
+        assertThat(pending.getDeltas()).isEqualTo(Map.of("yes", 5L));
+        assertThat(queue.size()).isEqualTo(1 + 3);
+    }
+
+    @Test
+    void leavesOutVotesWhenNotIncludingThem() {
+        PushQueue queue = new PushQueue(3, false);
+        queue.merge(delta("poll", 0, Map.of("yes", 5L), "v1", "v2", "v3", "v4", "v5"));
+
+        assertThat(queue.getPending("poll").getVotes()).isEmpty();
+        assertThat(queue.getPending("poll").getVotesDropped()).isZero();
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void requeuedBatchGoesInFrontOfNewerUpdates() {
+        PushQueue queue = new PushQueue(100, true);
+        queue.merge(delta("poll", 10, Map.of("yes", 1L), "v1"));
+        List<TopicUpdate> batch = queue.take();
+        queue.merge(delta("poll", 11, Map.of("no", 1L), "v2"));
+        queue.merge(delta("other", 0, Map.of("no", 1L), "v3"));
+
+        assertThat(queue.requeue(batch)).isZero();
+
+        TopicUpdate pending = queue.getPending("poll");
+        assertThat(pending.getBaseVotes()).isEqualTo(10);
+        assertThat(pending.getTotalVotes()).isEqualTo(12);
+        assertThat(pending.getDeltas()).isEqualTo(Map.of("yes", 1L, "no", 1L));
+        assertThat(pending.getVotes()).containsExactly("v1", "v2");
+        assertThat(queue.take()).extracting(TopicUpdate::getTopic).containsExactly("poll", "other");
+    }
+
+    @Test
+    void requeueReportsVotesLeftOut() {
+        PushQueue queue = new PushQueue(2, true);
+        queue.merge(delta("poll", 0, Map.of("yes", 2L), "v1", "v2"));
+        List<TopicUpdate> batch = queue.take();
+        queue.merge(delta("poll", 2, Map.of("yes", 1L), "v3"));
+
+        assertThat(queue.requeue(batch)).isEqualTo(1);
+        assertThat(queue.getPending("poll").getVotes()).containsExactly("v2", "v3");
+    }
+
+    @Test
+    void dropForgetsPendingUpdatesAndSnapshots() {
+        PushQueue queue = new PushQueue(100, true);
+        assertThat(queue.markSynced("poll")).isTrue();
+        assertThat(queue.markSynced("poll")).isFalse();
+        queue.merge(delta("poll", 0, Map.of("yes", 2L), "v1", "v2"));
+        queue.merge(delta("other", 0, Map.of("yes", 1L), "v3"));
+
+        queue.drop(List.of("poll"));
+
+        assertThat(queue.getPending("poll")).isNull();
+        assertThat(queue.isSynced("poll")).isFalse();
+        assertThat(queue.size()).isEqualTo(1 + 1);
+    }
+
+    @Test
+    void timestampOnlyMovesForward() {
+        PushQueue queue = new PushQueue(100, true);
+        queue.advanceTimestamp(5);
+        queue.advanceTimestamp(3);
+
+        assertThat(queue.getTimestamp()).isEqualTo(5);
+    }
+}
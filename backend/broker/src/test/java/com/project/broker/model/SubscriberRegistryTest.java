@@ -0,0 +1,94 @@
+package com.project.broker.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscriberRegistryTest {
+
+    private static final String A = "http://subscriber-a:8080";
+    private static final String B = "http://subscriber-b:8080";
+
+    @Test
+    void indexesSubscriptionsBothWays() {
+        SubscriberRegistry registry = new SubscriberRegistry();
+
+        assertThat(registry.add("poll-1", A)).isTrue();
+        assertThat(registry.add("poll-1", A)).isFalse();
+        registry.add("poll-1", B);
+        registry.add("poll-2", A);
+
+        assertThat(registry.isSubscribed("poll-1", B)).isTrue();
+        assertThat(registry.isSubscribed("poll-2", B)).isFalse();
+        assertThat(registry.getSubscribers("poll-1")).containsExactlyInAnyOrder(A, B);
+        assertThat(registry.getTopics(A)).containsExactlyInAnyOrder("poll-1", "poll-2");
+        assertThat(registry.getSubscribers()).containsExactlyInAnyOrder(A, B);
+    }
+
+    @Test
+    void removingLastSubscriptionForgetsTopicAndSubscriber() {
+        SubscriberRegistry registry = new SubscriberRegistry();
+        registry.add("poll-1", A);
+
+        assertThat(registry.remove("poll-1", B)).isFalse();
+        assertThat(registry.remove("poll-1", A)).isTrue();
+        assertThat(registry.remove("poll-1", A)).isFalse();
+
+        assertThat(registry.getSubscribers("poll-1")).isEmpty();
+        assertThat(registry.getTopics(A)).isEmpty();
+        assertThat(registry.getSubscribers()).isEmpty();
+        assertThat(registry.snapshot()).isEmpty();
+    }
+
+    @Test
+    void bulkWritesReportOnlyWhatChanged() {
+        SubscriberRegistry registry = new SubscriberRegistry();
+        registry.add("poll-1", A);
+
+        assertThat(registry.addAll(A, List.of("poll-1", "poll-2", "poll-3"))).containsExactly("poll-2", "poll-3");
+        assertThat(registry.removeAll(A, List.of("poll-2", "poll-4"))).containsExactly("poll-2");
+        assertThat(registry.getTopics(A)).containsExactlyInAnyOrder("poll-1", "poll-3");
+        assertThat(registry.removeAll(B, List.of("poll-1"))).isEmpty();
+    }
+
+    @Test
+    void removeAllWithoutTopicsLeavesEveryPoll() {
+        SubscriberRegistry registry = new SubscriberRegistry();
+        registry.addAll(A, List.of("poll-1", "poll-2"));
+        registry.add("poll-1", B);
+
+        assertThat(registry.removeAll(A, null)).containsExactlyInAnyOrder("poll-1", "poll-2");
+
+        assertThat(registry.getTopics(A)).isEmpty();
+        assertThat(registry.snapshot()).isEqualTo(Map.of("poll-1", List.of(B)));
+    }
+
+    @Test
+    void replaceAllSwapsInBothIndexes() {
+        SubscriberRegistry registry = new SubscriberRegistry();
+        registry.add("poll-old", A);
+
+        registry.replaceAll(Map.of("poll-1", List.of(A, B), "poll-2", List.of(B)));
+
+        assertThat(registry.isSubscribed("poll-old", A)).isFalse();
+        assertThat(registry.getTopics(A)).containsExactly("poll-1");
+        assertThat(registry.getTopics(B)).containsExactlyInAnyOrder("poll-1", "poll-2");
+        assertThat(registry.snapshot().get("poll-1")).containsExactlyInAnyOrder(A, B);
+    }
+
+    @Test
+    void snapshotIsIndependentCopy() {
+        SubscriberRegistry registry = new SubscriberRegistry();
+        registry.add("poll-1", A);
+
+        Map<String, List<String>> snapshot = registry.snapshot();
+        snapshot.get("poll-1").add(B);
+        registry.add("poll-2", A);
+
+        assertThat(registry.getSubscribers("poll-1")).containsExactly(A);
+        assertThat(snapshot).doesNotContainKey("poll-2");
+    }
+}
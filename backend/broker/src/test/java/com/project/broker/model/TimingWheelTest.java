@@ -0,0 +1,82 @@
+package com.project.broker.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 1_000;
+    // Not zero, so tick boundaries do not line up with the clock's
+    private static final long ORIGIN = 123_456;
+
+    @Test
+    void keyComesOutOnFirstTickAtOrAfterDeadline() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, ORIGIN);
+        wheel.schedule("a", ORIGIN + 2_500);
+
+        assertThat(wheel.advance(ORIGIN + 2_999)).isEmpty();
+        assertThat(wheel.advance(ORIGIN + 3_000)).containsExactly("a");
+        assertThat(wheel.advance(ORIGIN + 10_000)).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void pastDeadlineComesOutOnNextTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, ORIGIN);
+        wheel.advance(ORIGIN + 5_000);
+        wheel.schedule("late", ORIGIN + 1_000);
+
+        assertThat(wheel.advance(ORIGIN + 5_999)).isEmpty();
+        assertThat(wheel.advance(ORIGIN + 6_000)).containsExactly("late");
+    }
+
+    @Test
+    void deadlineBeyondOneTurnWaitsForItsOwnTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, ORIGIN);
+        // Same slot as tick 3, one turn later
+        wheel.schedule("far", ORIGIN + 11_000);
+        wheel.schedule("near", ORIGIN + 3_000);
+
+        assertThat(wheel.advance(ORIGIN + 3_000)).containsExactly("near");
+        assertThat(wheel.advance(ORIGIN + 10_999)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(ORIGIN + 11_000)).containsExactly("far");
+    }
+
+    @Test
+    void longPauseReleasesEverythingDue() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, ORIGIN);
+        for (int i = 1; i <= 20; i++) {
+            wheel.schedule("key-" + i, ORIGIN + i * TICK);
+        }
+        wheel.schedule("later", ORIGIN + 100 * TICK);
+
+        assertThat(wheel.advance(ORIGIN + 50 * TICK)).hasSize(20);
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(ORIGIN + 100 * TICK)).containsExactly("later");
+    }
+
+    @Test
+    void reschedulingAKeyAfterItCameOutCountsItOnce() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, ORIGIN);
+        wheel.schedule("a", ORIGIN + TICK);
+        assertThat(wheel.advance(ORIGIN + TICK)).containsExactly("a");
+
+        wheel.schedule("a", ORIGIN + 4 * TICK);
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(ORIGIN + 4 * TICK)).containsExactly("a");
+    }
+
+    @Test
+    void clearDropsEveryKey() {
+        TimingWheel wheel = new TimingWheel(TICK, 8, ORIGIN);
+        wheel.schedule("a", ORIGIN + TICK);
+        wheel.schedule("b", ORIGIN + 20 * TICK);
+
+        wheel.clear();
+
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(ORIGIN + 30 * TICK)).isEmpty();
+    }
+}
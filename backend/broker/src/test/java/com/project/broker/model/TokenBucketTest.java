@@ -0,0 +1,128 @@
+package com.project.broker.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void startsFullAndRefusesPastBurst() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = System.nanoTime();
+
+        assertThat(bucket.availableTokens(now)).isEqualTo(5);
+        assertThat(bucket.tryAcquire(5, now)).isZero();
+        assertThat(bucket.availableTokens(now)).isZero();
+        // The next token is one interval (100ms) away
+        assertThat(bucket.tryAcquire(1, now)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    void newBucketIsFullForAClockReadTakenBeforeIt() {
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(1, 1);
+
+        assertThat(bucket.tryAcquire(1, now)).isZero();
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = System.nanoTime();
+        bucket.tryAcquire(5, now);
+
+        assertThat(bucket.availableTokens(now + SECOND / 10)).isEqualTo(1);
+        assertThat(bucket.tryAcquire(1, now + SECOND / 10)).isZero();
+        assertThat(bucket.tryAcquire(1, now + SECOND / 10)).isPositive();
+        // Never more than a burst, however long it idles
+        assertThat(bucket.availableTokens(now + 60 * SECOND)).isEqualTo(5);
+        assertThat(bucket.isFull(now + 60 * SECOND)).isTrue();
+    }
+
+    @Test
+    void refusedAcquireTakesNothing() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = System.nanoTime();
+        bucket.tryAcquire(3, now);
+
+        assertThat(bucket.tryAcquire(3, now)).isEqualTo(SECOND / 10);
+        assertThat(bucket.availableTokens(now)).isEqualTo(2);
+    }
+
+    @Test
+    void releaseGivesBackExactlyWhatWasTaken() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = System.nanoTime();
+        bucket.tryAcquire(2, now);
+        bucket.tryAcquire(2, now);
+
+        bucket.release(2);
+
+        assertThat(bucket.availableTokens(now)).isEqualTo(3);
+    }
+
+    @Test
+    void releaseAfterAnIdleBucketRefilledDoesNotOverfill() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = System.nanoTime();
+        bucket.tryAcquire(5, now);
+        long later = now + 10 * SECOND;
+
+        bucket.release(5);
+
+        assertThat(bucket.availableTokens(later)).isEqualTo(5);
+        assertThat(bucket.tryAcquire(5, later)).isZero();
+        assertThat(bucket.tryAcquire(1, later)).isPositive();
+    }
+
+    @Test
+    void requestLargerThanBurstWaitsForAFullBucketAndPaysForEveryToken() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = System.nanoTime();
+        bucket.tryAcquire(1, now);
+
+        // Only let through once the bucket is full
+        assertThat(bucket.tryAcquire(50, now)).isEqualTo(SECOND / 10);
+        assertThat(bucket.tryAcquire(50, now + SECOND / 10)).isZero();
+        assertThat(bucket.availableTokens(now + SECOND / 10)).isZero();
+
+        // The 45 tokens over the burst are owed: nothing more for 4.5s, then one token
+        long paidOff = now + SECOND / 10 + 45 * SECOND / 10;
+        assertThat(bucket.tryAcquire(1, now + SECOND)).isEqualTo(paidOff + SECOND / 10 - (now + SECOND));
+        assertThat(bucket.tryAcquire(50, now + SECOND)).isEqualTo(paidOff + 5 * SECOND / 10 - (now + SECOND));
+        assertThat(bucket.tryAcquire(1, paidOff + SECOND / 10)).isZero();
+    }
+
+    @Test
+    void releasingAnOversizedRequestClearsItsDebt() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        long now = System.nanoTime();
+        bucket.tryAcquire(50, now);
+
+        bucket.release(50);
+
+        assertThat(bucket.availableTokens(now)).isEqualTo(5);
+        assertThat(bucket.tryAcquire(5, now)).isZero();
+    }
+
+    @Test
+    void oversizedRequestsAverageOutToTheRate() {
+        TokenBucket bucket = new TokenBucket(200, 400);
+        long start = System.nanoTime();
+        long admitted = 0;
+        // A 10,000 vote batch offered every 100ms for a minute
+        for (long now = start; now - start < 60 * SECOND; now += SECOND / 10) {
+            if (bucket.tryAcquire(10_000, now) == 0) {
+                admitted += 10_000;
+            }
+        }
+
+        assertThat(admitted).isLessThanOrEqualTo(400 + 200 * 60 + 10_000);
+        assertThat(admitted).isGreaterThanOrEqualTo(200 * 60 - 10_000);
+    }
+}
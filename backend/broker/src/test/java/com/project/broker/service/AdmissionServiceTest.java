@@ -0,0 +1,81 @@
+package com.project.broker.service;
+
+import com.project.broker.config.AdmissionProperties;
+import com.project.broker.model.AdmissionStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdmissionServiceTest {
+
+    private static AdmissionProperties.Limit limit(double rate, long burst) {
+        AdmissionProperties.Limit limit = new AdmissionProperties.Limit();
+        limit.setRate(rate);
+        limit.setBurst(burst);
+        return limit;
+    }
+
+    @Test
+    void admittedVotesAreCountedPerPoll() {
+        AdmissionService admission = new AdmissionService(new AdmissionProperties(), new SimpleMeterRegistry());
+
+        admission.admit("client", Map.of("poll", 3));
+
+        assertThat(admission.getReport().getTopics())
+                .extracting(AdmissionStats::getTopic, AdmissionStats::getAdmitted)
+                .containsExactly(org.assertj.core.groups.Tuple.tuple("poll", 3L));
+    }
+
+    @Test
+    void clientRejectionDoesNotTrackThePollsItNamed() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setClient(limit(1, 1));
+        AdmissionService admission = new AdmissionService(properties, new SimpleMeterRegistry());
+        admission.admit("client", "poll");
+
+        for (int i = 0; i < 100; i++) {
+            String topic = "made-up-" + i;
+            assertThatThrownBy(() -> admission.admit("client", topic))
+                    .isInstanceOf(AdmissionService.AdmissionRejectedException.class);
+        }
+
+        assertThat(admission.getReport().getTopics()).extracting(AdmissionStats::getTopic).containsExactly("poll");
+        assertThat(admission.getReport().getRejectedByClientLimit()).isEqualTo(100);
+    }
+
+    @Test
+    void globalRejectionDropsPollEntriesCreatedForTheRequest() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setGlobal(limit(1, 2));
+        AdmissionService admission = new AdmissionService(properties, new SimpleMeterRegistry());
+        admission.admit("client", Map.of("poll", 2));
+
+        assertThatThrownBy(() -> admission.admit("client", Map.of("poll", 1, "new-poll", 1)))
+                .isInstanceOf(AdmissionService.AdmissionRejectedException.class);
+
+        assertThat(admission.getReport().getTopics())
+                .extracting(AdmissionStats::getTopic, AdmissionStats::getRejected)
+                .containsExactly(org.assertj.core.groups.Tuple.tuple("poll", 1L));
+    }
+
+    @Test
+    void batchLargerThanClientBurstThrottlesTheClient() {
+        AdmissionService admission = new AdmissionService(new AdmissionProperties(), new SimpleMeterRegistry());
+
+        // Default client limit: 200 votes/s with a burst of 400
+        admission.admit("client", Map.of("poll", 10_000));
+
+        assertThatThrownBy(() -> admission.admit("client", Map.of("poll", 10_000)))
+                .isInstanceOfSatisfying(AdmissionService.AdmissionRejectedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isGreaterThanOrEqualTo(47));
+        assertThatThrownBy(() -> admission.admit("client", "poll"))
+                .isInstanceOf(AdmissionService.AdmissionRejectedException.class);
+        assertThat(admission.getReport().getRejectedByClientLimit()).isEqualTo(10_001);
+        // Other callers are unaffected
+        admission.admit("other-client", "poll");
+    }
+}
@@ -0,0 +1,73 @@
+package com.project.broker.service;
+
+import com.project.broker.model.LeaseGrant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeaseServiceTest {
+
+    private static final Duration TTL = Duration.ofMillis(100);
+
+    private final LeaseService leaseService = new LeaseService(TTL, 5, 64, new SimpleMeterRegistry());
+
+    private List<String> expireUntil(long deadline) throws InterruptedException {
+        List<String> expired = new ArrayList<>();
+        while (System.nanoTime() - deadline < 0) {
+            expired.addAll(leaseService.expire());
+            Thread.sleep(5);
+        }
+        return expired;
+    }
+
+    @Test
+    void renewGrantsThenExtends() {
+        LeaseGrant first = leaseService.renew(List.of("a", "b"));
+        LeaseGrant second = leaseService.renew(List.of("a"));
+
+        assertThat(first.getGranted()).isEqualTo(2);
+        assertThat(second.getRenewed()).isEqualTo(1);
+        assertThat(second.getTtlMs()).isEqualTo(TTL.toMillis());
+        assertThat(leaseService.isActive("a")).isTrue();
+    }
+
+    @Test
+    void onlyLeasesThatStopRenewingExpire() throws InterruptedException {
+        leaseService.renew(List.of("renewing", "silent"));
+
+        List<String> expired = new ArrayList<>();
+        long deadline = System.nanoTime() + TTL.toNanos() * 3;
+        while (System.nanoTime() - deadline < 0) {
+            leaseService.renew(List.of("renewing"));
+            expired.addAll(expireUntil(System.nanoTime() + TTL.toNanos() / 4));
+        }
+
+        assertThat(expired).containsExactly("silent");
+        assertThat(leaseService.isActive("renewing")).isTrue();
+        assertThat(leaseService.isActive("silent")).isFalse();
+    }
+
+    @Test
+    void releasedLeaseDoesNotExpireLater() throws InterruptedException {
+        leaseService.renew(List.of("a"));
+        leaseService.release("a");
+
+        assertThat(leaseService.isActive("a")).isFalse();
+        assertThat(expireUntil(System.nanoTime() + TTL.toNanos() * 2)).isEmpty();
+    }
+
+    @Test
+    void adoptOnlyGrantsMissingLeases() throws InterruptedException {
+        leaseService.renew(List.of("a"));
+        leaseService.adopt(Set.of("a", "b"));
+
+        assertThat(leaseService.isActive("b")).isTrue();
+        assertThat(expireUntil(System.nanoTime() + TTL.toNanos() * 2)).containsExactlyInAnyOrder("a", "b");
+    }
+}
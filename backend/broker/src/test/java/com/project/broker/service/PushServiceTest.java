@@ -0,0 +1,153 @@
+package com.project.broker.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.broker.model.TopicUpdate;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PushServiceTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Status and body of the next responses, one per request; 200 with no body once used up
+    private final ConcurrentLinkedQueue<Object[]> responses = new ConcurrentLinkedQueue<>();
+    private final List<List<TopicUpdate>> received = new ArrayList<>();
+    private HttpServer server;
+    private String subscriberUrl;
+
+    @BeforeEach
+    void startSubscriber() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/push", exchange -> {
+            List<TopicUpdate> batch = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<>() {});
+            Object[] response = responses.poll();
+            int status = response == null ? 200 : (int) response[0];
+            byte[] body = response == null ? new byte[0] : ((String) response[1]).getBytes(StandardCharsets.UTF_8);
+            if (status == 200) {
+                synchronized (received) {
+                    received.add(batch);
+                }
+            }
+            exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        subscriberUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopSubscriber() {
+        server.stop(0);
+    }
+
+    private PushService pushService(int maxRetries) {
+        VoteViewService voteViewService = new VoteViewService(null, null, 0, 1, false);
+        return new PushService(voteViewService, true, true, 1000, 1000, 4, maxRetries,
+                Duration.ofMillis(1), Duration.ofMillis(20), Duration.ofSeconds(1), Duration.ofSeconds(1), meterRegistry);
+    }
+
+    private static TopicUpdate delta(long base, String... votes) {
+        return new TopicUpdate("poll", false, base, base + votes.length, Map.of("yes", (long) votes.length),
+                new ArrayList<>(List.of(votes)));
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private List<TopicUpdate> lastReceived() {
+        synchronized (received) {
+            return received.get(received.size() - 1);
+        }
+    }
+
+    private int receivedCount() {
+        synchronized (received) {
+            return received.size();
+        }
+    }
+
+    private static void flushUntil(PushService pushService, BooleanSupplier done) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!done.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("timed out").isNegative();
+            pushService.flush();
+            Thread.sleep(2);
+        }
+    }
+
+    @Test
+    void retriesFailedBatchMergedWithNewerUpdates() throws Exception {
+        PushService pushService = pushService(5);
+        pushService.publish(List.of(subscriberUrl), delta(0, "v1"), 1);
+        flushUntil(pushService, () -> receivedCount() == 1);
+
+        responses.add(new Object[] {503, ""});
+        responses.add(new Object[] {503, ""});
+        pushService.publish(List.of(subscriberUrl), delta(1, "v2"), 2);
+        pushService.flush();
+        pushService.publish(List.of(subscriberUrl), delta(2, "v3"), 3);
+        flushUntil(pushService, () -> receivedCount() == 2);
+
+        TopicUpdate update = lastReceived().get(0);
+        assertThat(update.isSnapshot()).isFalse();
+        assertThat(update.getBaseVotes()).isEqualTo(1);
+        assertThat(update.getTotalVotes()).isEqualTo(3);
+        assertThat(update.getDeltas()).isEqualTo(Map.of("yes", 2L));
+        assertThat(update.getVotes()).containsExactly("v2", "v3");
+        assertThat(count("broker.push.retries")).isEqualTo(2);
+        assertThat(count("broker.push.batches.sent")).isEqualTo(2);
+        pushService.stop();
+    }
+
+    @Test
+    void givesUpAfterMaxRetriesAndSendsSnapshot() throws Exception {
+        PushService pushService = pushService(1);
+        pushService.publish(List.of(subscriberUrl), delta(0, "v1"), 1);
+        flushUntil(pushService, () -> receivedCount() == 1);
+
+        responses.add(new Object[] {503, ""});
+        responses.add(new Object[] {503, ""});
+        pushService.publish(List.of(subscriberUrl), delta(1, "v2"), 2);
+        flushUntil(pushService, () -> receivedCount() == 2);
+
+        assertThat(count("broker.push.batches.dropped")).isEqualTo(1);
+        TopicUpdate update = lastReceived().get(0);
+        assertThat(update.isSnapshot()).isTrue();
+        assertThat(update.getVotes()).isEmpty();
+        pushService.stop();
+    }
+
+    @Test
+    void queuesSnapshotsTheSubscriberAsksFor() throws Exception {
+        PushService pushService = pushService(5);
+        pushService.publish(List.of(subscriberUrl), delta(0, "v1"), 1);
+        flushUntil(pushService, () -> receivedCount() == 1);
+
+        responses.add(new Object[] {200, "[\"poll\"]"});
+        pushService.publish(List.of(subscriberUrl), delta(1, "v2"), 2);
+        flushUntil(pushService, () -> receivedCount() == 3);
+
+        assertThat(lastReceived().get(0).isSnapshot()).isTrue();
+        assertThat(count("broker.push.retries")).isZero();
+        pushService.stop();
+    }
+}
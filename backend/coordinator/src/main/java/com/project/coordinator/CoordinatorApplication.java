@@ -1,11 +1,15 @@
 package com.project.coordinator;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @SpringBootApplication
 @EnableScheduling
 public class CoordinatorApplication {
@@ -14,8 +18,14 @@ public class CoordinatorApplication {
 		SpringApplication.run(CoordinatorApplication.class, args);
 	}
 
+	// Bounded so one unreachable broker cannot hold up the leader-change notice to the rest
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate restTemplate(RestTemplateBuilder builder,
+									 @Value("${rest.client.connect-timeout:2s}") Duration connectTimeout,
+									 @Value("${rest.client.read-timeout:5s}") Duration readTimeout) {
+		return builder
+				.setConnectTimeout(connectTimeout)
+				.setReadTimeout(readTimeout)
+				.build();
 	}
 } 
\ No newline at end of file
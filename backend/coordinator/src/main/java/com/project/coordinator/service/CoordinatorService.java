@@ -75,7 +75,7 @@ public class CoordinatorService {
         }
     }
 
-    @Scheduled(fixedRate = 5000)
+    @Scheduled(fixedDelay = 5000)
     public void checkBrokerStatus() {
         incrementClock();
         long now = System.currentTimeMillis();
@@ -162,7 +162,7 @@ public class CoordinatorService {
     /**
      * Scheduled task to retry leader notifications for brokers that weren't ready
      */
-    @Scheduled(fixedRate = 2000)
+    @Scheduled(fixedDelay = 2000)
     public void retryLeaderNotifications() {
         if (leader == null || pendingLeaderNotifications.isEmpty()) return;
         
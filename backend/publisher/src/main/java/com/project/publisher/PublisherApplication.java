@@ -1,17 +1,23 @@
 package com.project.publisher;
 
+import com.project.publisher.service.DeliveryTracker;
+import com.project.publisher.service.DuplicateVoteFilter;
+import com.project.publisher.service.PublishRegistry;
 import com.project.publisher.service.PublisherService;
+import com.project.publisher.service.TopicMetadataCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.apache.kafka.clients.admin.AdminClient;
 
+import java.time.Duration;
+
 @SpringBootApplication
 @EnableScheduling
 public class PublisherApplication {
@@ -24,8 +30,13 @@ public class PublisherApplication {
 	}
 
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate restTemplate(RestTemplateBuilder builder,
+									 @Value("${rest.client.connect-timeout:2s}") Duration connectTimeout,
+									 @Value("${rest.client.read-timeout:5s}") Duration readTimeout) {
+		return builder
+				.setConnectTimeout(connectTimeout)
+				.setReadTimeout(readTimeout)
+				.build();
 	}
 
 	@EventListener
@@ -36,9 +47,13 @@ public class PublisherApplication {
 
 	@Bean
 	public PublisherService publisherService(RestTemplate restTemplate, 
-										   KafkaTemplate<String, String> kafkaTemplate,
+										   DeliveryTracker deliveryTracker,
+										   DuplicateVoteFilter duplicateVoteFilter,
+										   PublishRegistry publishRegistry,
+										   TopicMetadataCache topicMetadataCache,
 										   AdminClient adminClient) {
-		PublisherService publisherService = new PublisherService(restTemplate, kafkaTemplate, adminClient);
+		PublisherService publisherService = new PublisherService(restTemplate, deliveryTracker, duplicateVoteFilter,
+				publishRegistry, topicMetadataCache, adminClient);
 		publisherService.setPort(port);
 		return publisherService;
 	}
@@ -0,0 +1,116 @@
+package com.project.publisher.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token-bucket limits on the publish path.
+ *
+ * publisher.admission.global caps all votes together, .topic applies to each
+ * poll separately, .client to each caller, and .topics.&lt;topic&gt;.* override
+ * the per-poll limit for one poll. A negative rate disables that limit.
+ * Callers are told apart by client-header when it is set (e.g. X-Forwarded-For
+ * behind a proxy), otherwise by remote address.
+ */
+@Component
+@ConfigurationProperties(prefix = "publisher.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+    private Limit global = limit(50_000, 100_000);
+    private Limit topic = limit(10_000, 20_000);
+    private Limit client = limit(200, 400);
+    private Map<String, Limit> topics = new HashMap<>();
+    private String clientHeader = "";
+
+    private static Limit limit(double rate, long burst) {
+        Limit limit = new Limit();
+        limit.setRate(rate);
+        limit.setBurst(burst);
+        return limit;
+    }
+
+    public Limit limitFor(String topicName) {
+        Limit override = topics.get(topicName);
+        if (override == null) {
+            return topic;
+        }
+        return limit(override.getRate() != 0 ? override.getRate() : topic.getRate(),
+                override.getBurst() > 0 ? override.getBurst() : topic.getBurst());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Limit getGlobal() {
+        return global;
+    }
+
+    public void setGlobal(Limit global) {
+        this.global = global;
+    }
+
+    public Limit getTopic() {
+        return topic;
+    }
+
+    public void setTopic(Limit topic) {
+        this.topic = topic;
+    }
+
+    public Limit getClient() {
+        return client;
+    }
+
+    public void setClient(Limit client) {
+        this.client = client;
+    }
+
+    public Map<String, Limit> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(Map<String, Limit> topics) {
+        this.topics = topics;
+    }
+
+    public String getClientHeader() {
+        return clientHeader;
+    }
+
+    public void setClientHeader(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    public static class Limit {
+
+        /** Sustained votes per second */
+        private double rate;
+        /** Votes that may arrive at once after a quiet period */
+        private long burst;
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public long getBurst() {
+            return burst;
+        }
+
+        public void setBurst(long burst) {
+            this.burst = burst;
+        }
+    }
+}
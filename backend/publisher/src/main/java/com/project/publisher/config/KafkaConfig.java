@@ -1,12 +1,27 @@
 package com.project.publisher.config;
 
+import com.project.publisher.service.DeliveryTracker;
+import com.project.publisher.model.VoteRecord;
+import com.project.publisher.serialization.VoteRecordSerializer;
+import com.project.publisher.service.DuplicateVoteFilter;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,6 +31,48 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer.acks:all}")
+    private String acks;
+
+    @Value("${spring.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${spring.kafka.producer.buffer-memory:67108864}")
+    private long bufferMemory;
+
+    @Value("${spring.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${spring.kafka.producer.properties.linger.ms:10}")
+    private int lingerMs;
+
+    @Value("${spring.kafka.producer.properties.enable.idempotence:true}")
+    private boolean idempotence;
+
+    @Value("${spring.kafka.producer.properties.partitioner.class:com.project.publisher.config.VotePartitioner}")
+    private String partitionerClass;
+
+    @Value("${spring.kafka.producer.properties.vote.partitioner.attribute:voter}")
+    private String partitionerAttribute;
+
+    @Value("${publisher.dedup.initial-capacity:1024}")
+    private int dedupInitialCapacity;
+
+    @Value("${publisher.dedup.memory-budget-bytes:268435456}")
+    private long dedupMemoryBudgetBytes;
+
+    @Value("${publisher.dedup.poll-timeout:200ms}")
+    private Duration dedupPollTimeout;
+
+    @Value("${publisher.dedup.max-load-time:60s}")
+    private Duration dedupMaxLoadTime;
+
+    @Value("${kafka.delivery.max-in-flight:10000}")
+    private int maxInFlight;
+
+    @Value("${kafka.delivery.acquire-timeout:5s}")
+    private Duration acquireTimeout;
+
     @Bean
     public KafkaAdmin kafkaAdmin() {
         Map<String, Object> configs = new HashMap<>();
@@ -29,4 +86,51 @@ public class KafkaConfig {
         configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         return AdminClient.create(configs);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Producer tuned for throughput: records wait up to linger.ms to fill
+     * compressed batches, and idempotence keeps retries from duplicating votes.
+     * Votes are written in the binary {@link VoteRecord} layout.
+     */
+    @Bean
+    public ProducerFactory<String, VoteRecord> producerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, VoteRecordSerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, acks);
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        props.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, partitionerClass);
+        props.put(VotePartitioner.ATTRIBUTE_CONFIG, partitionerAttribute);
+        return new DefaultKafkaProducerFactory<>(props);
+    }
+
+    @Bean
+    public KafkaTemplate<String, VoteRecord> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    @Bean
+    public DeliveryTracker deliveryTracker(MeterRegistry meterRegistry) {
+        return new DeliveryTracker(kafkaTemplate(), maxInFlight, acquireTimeout, meterRegistry, "publisher");
+    }
+
+    /**
+     * Voter indexes are rebuilt from record keys with a consumer that has no
+     * group id and never commits; values are left as raw bytes
+     */
+    @Bean
+    public DuplicateVoteFilter duplicateVoteFilter(MeterRegistry meterRegistry) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        return new DuplicateVoteFilter(new DefaultKafkaConsumerFactory<>(props), dedupInitialCapacity,
+                dedupMemoryBudgetBytes, dedupPollTimeout, dedupMaxLoadTime, meterRegistry);
+    }
+}
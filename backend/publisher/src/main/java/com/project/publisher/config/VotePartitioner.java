@@ -0,0 +1,74 @@
+package com.project.publisher.config;
+
+import com.project.publisher.model.VoteRecord;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the partition of a vote from one of its attributes, set with the
+ * producer property vote.partitioner.attribute:
+ *
+ * <ul>
+ *   <li>voter (default): the record key, or the voter named in the vote when
+ *       there is no key, so all votes of one voter stay in order</li>
+ *   <li>candidate: votes for one candidate share a partition</li>
+ *   <li>none: votes are spread round-robin for the most even load</li>
+ * </ul>
+ *
+ * Votes without the attribute are spread round-robin. The hash is the same
+ * murmur2 Kafka uses for keys. Growing a topic's partitions changes where
+ * a voter's later votes land, so ordering is only kept from then on.
+ */
+public class VotePartitioner implements Partitioner {
+
+    public static final String ATTRIBUTE_CONFIG = "vote.partitioner.attribute";
+
+    private String attribute = "voter";
+    private final Map<String, AtomicInteger> roundRobin = new ConcurrentHashMap<>();
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object configured = configs.get(ATTRIBUTE_CONFIG);
+        if (configured != null) {
+            attribute = configured.toString().trim().toLowerCase();
+        }
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int numPartitions = cluster.partitionsForTopic(topic).size();
+        byte[] attributeBytes = attributeBytes(keyBytes, value);
+        if (attributeBytes == null) {
+            return Utils.toPositive(roundRobin.computeIfAbsent(topic, k -> new AtomicInteger()).getAndIncrement())
+                    % numPartitions;
+        }
+        return Utils.toPositive(Utils.murmur2(attributeBytes)) % numPartitions;
+    }
+
+    private byte[] attributeBytes(byte[] keyBytes, Object value) {
+        VoteRecord vote = value instanceof VoteRecord ? (VoteRecord) value : null;
+        switch (attribute) {
+            case "voter":
+                if (keyBytes != null) {
+                    return keyBytes;
+                }
+                return vote != null && vote.getVoterId() != null
+                        ? vote.getVoterId().getBytes(StandardCharsets.UTF_8) : null;
+            case "candidate":
+                return vote != null && vote.getCandidate() != null
+                        ? vote.getCandidate().getBytes(StandardCharsets.UTF_8) : null;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -1,22 +1,101 @@
 package com.project.publisher.controller;
 
+import com.project.publisher.model.AdmissionReport;
+import com.project.publisher.model.BatchPublishResult;
+import com.project.publisher.model.PublishStatus;
+import com.project.publisher.model.TopicMetadata;
+import com.project.publisher.model.VoteRequest;
+import com.project.publisher.service.AdmissionService;
 import com.project.publisher.service.PublisherService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api")
 public class PublisherApiController {
 
+    // Below the servlet container's default async timeout of 30 s
+    private static final long MAX_STATUS_WAIT_MS = 20_000;
+
     @Autowired
     private PublisherService publisherService;
 
+    @Autowired
+    private AdmissionService admissionService;
+
     @PostMapping("/publish")
-    public void publishMessage(@RequestParam String topic, @RequestBody String message, @RequestParam long timestamp) {
+    public void publishMessage(@RequestParam String topic, @RequestBody String message, @RequestParam long timestamp,
+                               @RequestParam(required = false) String voterId, HttpServletRequest request) {
+        publisherService.updateClock(timestamp);
+        admissionService.admit(admissionService.clientOf(request), topic);
+        publisherService.publishMessage(topic, message, voterId);
+    }
+
+    /**
+     * Publishes a vote without waiting for Kafka: 202 with the publish ID,
+     * whose outcome is then available from {@code GET /api/publish/{id}}
+     */
+    @PostMapping("/publish/async")
+    public ResponseEntity<PublishStatus> publishAsync(@RequestParam String topic, @RequestBody String message,
+                                                      @RequestParam long timestamp,
+                                                      @RequestParam(required = false) String voterId,
+                                                      HttpServletRequest request) {
+        publisherService.updateClock(timestamp);
+        admissionService.admit(admissionService.clientOf(request), topic);
+        PublishStatus status = publisherService.publishAsync(topic, message, voterId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/publish/" + status.getId()))
+                .body(status);
+    }
+
+    /**
+     * Status of an async publish. With {@code waitMs}, a pending publish is
+     * answered once it completes or after that long, whichever comes first,
+     * without holding a request thread in between.
+     */
+    @GetMapping("/publish/{id}")
+    public CompletableFuture<PublishStatus> getPublishStatus(@PathVariable String id, @RequestParam long timestamp,
+                                                             @RequestParam(defaultValue = "0") long waitMs) {
+        publisherService.updateClock(timestamp);
+        return publisherService.getPublishStatus(id, Duration.ofMillis(Math.min(waitMs, MAX_STATUS_WAIT_MS)));
+    }
+
+    /**
+     * Publishes many votes, possibly for different topics, in one request.
+     * Responds once Kafka has acknowledged or rejected every vote, with one
+     * result per vote in request order.
+     */
+    @PostMapping("/publish/batch")
+    public CompletableFuture<BatchPublishResult> publishBatch(@RequestBody List<VoteRequest> votes, @RequestParam long timestamp,
+                                                              HttpServletRequest request) {
         publisherService.updateClock(timestamp);
-        publisherService.publishMessage(topic, message);
+        Map<String, Integer> votesByTopic = new HashMap<>();
+        for (VoteRequest vote : votes) {
+            if (vote != null && vote.getTopic() != null) {
+                votesByTopic.merge(vote.getTopic(), 1, Integer::sum);
+            }
+        }
+        admissionService.admit(admissionService.clientOf(request), votesByTopic);
+        return publisherService.publishBatch(votes);
+    }
+
+    /**
+     * Admission counters and remaining tokens, globally and per poll
+     */
+    @GetMapping("/admission")
+    public AdmissionReport getAdmission(@RequestParam long timestamp) {
+        publisherService.updateClock(timestamp);
+        return admissionService.getReport();
     }
 
     @GetMapping("/leader-broker")
@@ -31,6 +110,30 @@ public class PublisherApiController {
         return publisherService.getTopics();
     }
 
+    @GetMapping("/topics/{topic}/partitions")
+    public int getPartitionCount(@PathVariable String topic, @RequestParam long timestamp) {
+        publisherService.updateClock(timestamp);
+        return publisherService.getPartitionCount(topic);
+    }
+
+    /**
+     * Partition count and topic configs of a poll, served from the metadata cache
+     */
+    @GetMapping("/topics/{topic}")
+    public TopicMetadata getTopicMetadata(@PathVariable String topic, @RequestParam long timestamp) {
+        publisherService.updateClock(timestamp);
+        return publisherService.getTopicMetadata(topic, true);
+    }
+
+    /**
+     * Grows a poll's topic to {@code count} partitions; partitions can only be added
+     */
+    @PostMapping("/topics/{topic}/partitions")
+    public int growPartitions(@PathVariable String topic, @RequestParam int count, @RequestParam long timestamp) {
+        publisherService.updateClock(timestamp);
+        return publisherService.growPartitions(topic, count);
+    }
+
     @GetMapping("/ping")
     public String ping(@RequestParam long timestamp) {
         publisherService.updateClock(timestamp);
@@ -1,6 +1,8 @@
 package com.project.publisher.controller;
 
+import com.project.publisher.service.AdmissionService;
 import com.project.publisher.service.PublisherService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -14,6 +16,9 @@ public class PublisherThymeleafController {
     @Autowired
     private PublisherService publisherService;
 
+    @Autowired
+    private AdmissionService admissionService;
+
     @GetMapping("/")
     public String home(Model model, @RequestParam(required = false, defaultValue = "0") long timestamp) {
         publisherService.updateClock(timestamp);
@@ -31,9 +36,11 @@ public class PublisherThymeleafController {
     }
 
     @PostMapping("/publish")
-    public String publish(@RequestParam String topic, @RequestParam String message, @RequestParam(required = false, defaultValue = "0") long timestamp) {
+    public String publish(@RequestParam String topic, @RequestParam String message, @RequestParam(required = false, defaultValue = "0") long timestamp,
+                          HttpServletRequest request) {
         publisherService.updateClock(timestamp);
-        publisherService.publishMessage(topic, message);
+        admissionService.admit(admissionService.clientOf(request), topic);
+        publisherService.publishMessage(topic, message, null);
         return "redirect:/?timestamp=" + publisherService.getLogicalClock();
     }
 
@@ -0,0 +1,61 @@
+package com.project.publisher.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-vote outcomes of a /api/publish/batch request
+ */
+public class BatchPublishResult {
+
+    private int stored;
+    private int duplicates;
+    private int failed;
+    private List<VoteResult> results = new ArrayList<>();
+
+    public BatchPublishResult() {
+    }
+
+    public BatchPublishResult(List<VoteResult> results) {
+        this.results = results;
+        for (VoteResult result : results) {
+            switch (result.getStatus()) {
+                case STORED -> stored++;
+                case DUPLICATE -> duplicates++;
+                default -> failed++;
+            }
+        }
+    }
+
+    public int getStored() {
+        return stored;
+    }
+
+    public void setStored(int stored) {
+        this.stored = stored;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<VoteResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<VoteResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,129 @@
+package com.project.publisher.model;
+
+/**
+ * Where an asynchronously published vote stands. A vote is PENDING until
+ * Kafka acknowledges it (COMMITTED, with its partition and offset) or
+ * refuses it (FAILED). UNKNOWN means no answer came within the ack timeout;
+ * the vote may still have been stored.
+ */
+public class PublishStatus {
+
+    public enum State {
+        PENDING,
+        COMMITTED,
+        FAILED,
+        UNKNOWN
+    }
+
+    private String id;
+    private String topic;
+    private State state;
+    private int partition = -1;
+    private long offset = -1;
+    private String error;
+    private long acceptedAt;
+    private long completedAt = -1;
+
+    public PublishStatus() {
+    }
+
+    public static PublishStatus pending(String id, String topic) {
+        PublishStatus status = new PublishStatus();
+        status.id = id;
+        status.topic = topic;
+        status.state = State.PENDING;
+        status.acceptedAt = System.currentTimeMillis();
+        return status;
+    }
+
+    public PublishStatus committed(int partition, long offset) {
+        PublishStatus status = complete(State.COMMITTED);
+        status.partition = partition;
+        status.offset = offset;
+        return status;
+    }
+
+    public PublishStatus failed(State state, String error) {
+        PublishStatus status = complete(state);
+        status.error = error;
+        return status;
+    }
+
+    private PublishStatus complete(State state) {
+        PublishStatus status = new PublishStatus();
+        status.id = id;
+        status.topic = topic;
+        status.state = state;
+        status.acceptedAt = acceptedAt;
+        status.completedAt = System.currentTimeMillis();
+        return status;
+    }
+
+    public boolean isDone() {
+        return state != State.PENDING;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getAcceptedAt() {
+        return acceptedAt;
+    }
+
+    public void setAcceptedAt(long acceptedAt) {
+        this.acceptedAt = acceptedAt;
+    }
+
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(long completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,87 @@
+package com.project.publisher.model;
+
+/**
+ * A vote as it travels through Kafka.
+ *
+ * Votes published since the binary format was introduced carry the poll,
+ * candidate, voter and both timestamps. Plain string votes, from older
+ * publishers or the broker's /api/messages path, only have {@code text}.
+ */
+public class VoteRecord {
+
+    private String pollId;
+    private String candidate;
+    private String voterId;
+    private long clientTimestamp = -1;
+    private long lamportTimestamp = -1;
+    private String text;
+
+    public VoteRecord() {
+    }
+
+    public VoteRecord(String pollId, String candidate, String voterId, long clientTimestamp, long lamportTimestamp) {
+        this.pollId = pollId;
+        this.candidate = candidate;
+        this.voterId = voterId;
+        this.clientTimestamp = clientTimestamp;
+        this.lamportTimestamp = lamportTimestamp;
+    }
+
+    public static VoteRecord ofText(String text) {
+        VoteRecord record = new VoteRecord();
+        record.text = text;
+        return record;
+    }
+
+    public boolean isText() {
+        return text != null;
+    }
+
+    public String getPollId() {
+        return pollId;
+    }
+
+    public void setPollId(String pollId) {
+        this.pollId = pollId;
+    }
+
+    public String getCandidate() {
+        return candidate;
+    }
+
+    public void setCandidate(String candidate) {
+        this.candidate = candidate;
+    }
+
+    public String getVoterId() {
+        return voterId;
+    }
+
+    public void setVoterId(String voterId) {
+        this.voterId = voterId;
+    }
+
+    public long getClientTimestamp() {
+        return clientTimestamp;
+    }
+
+    public void setClientTimestamp(long clientTimestamp) {
+        this.clientTimestamp = clientTimestamp;
+    }
+
+    public long getLamportTimestamp() {
+        return lamportTimestamp;
+    }
+
+    public void setLamportTimestamp(long lamportTimestamp) {
+        this.lamportTimestamp = lamportTimestamp;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
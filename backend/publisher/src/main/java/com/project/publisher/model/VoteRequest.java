@@ -0,0 +1,45 @@
+package com.project.publisher.model;
+
+/**
+ * One vote in a batch: the poll topic, the message body exactly as it
+ * would be sent to /api/publish, and optionally the voter's ID
+ */
+public class VoteRequest {
+
+    private String topic;
+    private String message;
+    private String voterId;
+
+    public VoteRequest() {
+    }
+
+    public VoteRequest(String topic, String message, String voterId) {
+        this.topic = topic;
+        this.message = message;
+        this.voterId = voterId;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getVoterId() {
+        return voterId;
+    }
+
+    public void setVoterId(String voterId) {
+        this.voterId = voterId;
+    }
+}
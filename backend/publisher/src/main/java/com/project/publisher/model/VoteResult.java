@@ -0,0 +1,100 @@
+package com.project.publisher.model;
+
+/**
+ * Outcome of one vote in a batch, in the same position as the request.
+ * Stored votes carry the partition and offset Kafka assigned them.
+ */
+public class VoteResult {
+
+    public enum Status {
+        STORED,
+        DUPLICATE,
+        FAILED
+    }
+
+    private int index;
+    private String topic;
+    private Status status;
+    private int partition = -1;
+    private long offset = -1;
+    private String error;
+
+    public VoteResult() {
+    }
+
+    public static VoteResult stored(int index, String topic, int partition, long offset) {
+        VoteResult result = new VoteResult();
+        result.index = index;
+        result.topic = topic;
+        result.status = Status.STORED;
+        result.partition = partition;
+        result.offset = offset;
+        return result;
+    }
+
+    public static VoteResult duplicate(int index, String topic) {
+        VoteResult result = new VoteResult();
+        result.index = index;
+        result.topic = topic;
+        result.status = Status.DUPLICATE;
+        result.error = "Voter already voted in this poll";
+        return result;
+    }
+
+    public static VoteResult failed(int index, String topic, String error) {
+        VoteResult result = new VoteResult();
+        result.index = index;
+        result.topic = topic;
+        result.status = Status.FAILED;
+        result.error = error;
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,198 @@
+package com.project.publisher.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Set of voters that already voted in one poll, stored as 64-bit hashes of
+ * their voter IDs.
+ *
+ * Lookups go through a Bloom filter first; it is an eighth of the size of
+ * the exact set and stays in cache, so the common case of a first-time
+ * voter is answered without touching the set. Hits are confirmed in an
+ * open-addressing set of hashes (linear probing, 0 marks an empty slot).
+ * Two different voter IDs with the same 64-bit hash would be treated as
+ * one voter; at millions of voters per poll the odds are around 1e-7.
+ *
+ * Not thread-safe; callers hold {@link #getLock()}. It is a ReentrantLock
+ * rather than a monitor because the first caller rebuilds the index from
+ * Kafka while holding it, which would pin a virtual thread to its carrier.
+ */
+public class VoterIndex {
+
+    private static final int BLOOM_HASHES = 7;
+    private static final int BLOOM_BITS_PER_SLOT = 8;
+    private static final double MAX_LOAD = 0.75;
+
+    private long[] slots;
+    private long[] bloom;
+    private int mask;
+    private int bloomMask;
+    private int size;
+    private volatile boolean loaded;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public VoterIndex(int initialCapacity) {
+        allocate(Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1));
+    }
+
+    /**
+     * 64-bit hash of a voter ID, never 0
+     */
+    public static long hash(String voterId) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : voterId.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash = mix(hash);
+        return hash == 0 ? 1 : hash;
+    }
+
+    public boolean contains(long hash) {
+        return mightContain(hash) && indexOf(hash) >= 0;
+    }
+
+    /**
+     * Adds a voter; returns false if it was already present. Call
+     * {@link #grow()} first when {@link #isFull()}.
+     */
+    public boolean add(long hash) {
+        if (contains(hash)) {
+            return false;
+        }
+        insert(hash);
+        setBloomBits(hash);
+        size++;
+        return true;
+    }
+
+    /**
+     * Forgets a voter, e.g. when their vote could not be stored. The Bloom
+     * bits stay set; they only cost a lookup in the exact set later on.
+     */
+    public boolean remove(long hash) {
+        int slot = indexOf(hash);
+        if (slot < 0) {
+            return false;
+        }
+        // Backward-shift deletion keeps every probe chain unbroken without tombstones
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (slots[next] != 0) {
+            int home = (int) slots[next] & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[hole] = 0;
+        size--;
+        return true;
+    }
+
+    public boolean isFull() {
+        return size + 1 > slots.length * MAX_LOAD;
+    }
+
+    /**
+     * Doubles the capacity, rebuilding the Bloom filter from the exact hashes
+     */
+    public void grow() {
+        long[] old = slots;
+        allocate(old.length * 2);
+        for (long hash : old) {
+            if (hash != 0) {
+                insert(hash);
+                setBloomBits(hash);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long sizeInBytes() {
+        return bytesForCapacity(slots.length);
+    }
+
+    public long sizeInBytesAfterGrowth() {
+        return bytesForCapacity(slots.length * 2);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void setLoaded(boolean loaded) {
+        this.loaded = loaded;
+    }
+
+    public ReentrantLock getLock() {
+        return lock;
+    }
+
+    private static long bytesForCapacity(int capacity) {
+        return (long) capacity * Long.BYTES + (long) capacity * BLOOM_BITS_PER_SLOT / Byte.SIZE;
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        mask = capacity - 1;
+        int bloomBits = capacity * BLOOM_BITS_PER_SLOT;
+        bloom = new long[bloomBits / Long.SIZE];
+        bloomMask = bloomBits - 1;
+    }
+
+    private void insert(long hash) {
+        int slot = (int) hash & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = hash;
+    }
+
+    private int indexOf(long hash) {
+        int slot = (int) hash & mask;
+        while (slots[slot] != 0) {
+            if (slots[slot] == hash) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean mightContain(long hash) {
+        int h1 = (int) (hash >>> 32);
+        int h2 = (int) mix(hash) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & bloomMask;
+            if ((bloom[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setBloomBits(long hash) {
+        int h1 = (int) (hash >>> 32);
+        int h2 = (int) mix(hash) | 1;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = (h1 + i * h2) & bloomMask;
+            bloom[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    // Murmur3 finalizer
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb62fe53a87cdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
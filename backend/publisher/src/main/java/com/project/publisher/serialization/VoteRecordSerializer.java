@@ -0,0 +1,15 @@
+package com.project.publisher.serialization;
+
+import com.project.publisher.model.VoteRecord;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer writing votes in the {@link VoteRecordCodec} layout
+ */
+public class VoteRecordSerializer implements Serializer<VoteRecord> {
+
+    @Override
+    public byte[] serialize(String topic, VoteRecord record) {
+        return record == null ? null : VoteRecordCodec.encode(record);
+    }
+}
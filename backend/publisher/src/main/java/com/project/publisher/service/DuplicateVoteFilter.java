@@ -0,0 +1,188 @@
+package com.project.publisher.service;
+
+import com.project.publisher.model.VoterIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers which voters already voted in each poll so repeats can be
+ * refused before they reach Kafka.
+ *
+ * Votes are published with the voter ID as the record key, so the index of
+ * a poll is rebuilt by reading the keys back from its topic the first time
+ * the poll is voted on after a restart. All indexes together stay within
+ * memoryBudgetBytes; once that is used up, new voters are refused rather
+ * than let through unchecked.
+ */
+public class DuplicateVoteFilter {
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final int initialCapacity;
+    private final long memoryBudgetBytes;
+    private final Duration pollTimeout;
+    private final Duration maxLoadTime;
+    private final Map<String, VoterIndex> indexes = new ConcurrentHashMap<>();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final Counter duplicates;
+
+    public DuplicateVoteFilter(ConsumerFactory<String, byte[]> consumerFactory,
+                               int initialCapacity,
+                               long memoryBudgetBytes,
+                               Duration pollTimeout,
+                               Duration maxLoadTime,
+                               MeterRegistry meterRegistry) {
+        this.consumerFactory = consumerFactory;
+        this.initialCapacity = initialCapacity;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.pollTimeout = pollTimeout;
+        this.maxLoadTime = maxLoadTime;
+        Gauge.builder("publisher.dedup.bytes", allocatedBytes, AtomicLong::get)
+                .description("Memory held by the per-poll voter indexes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("publisher.dedup.duplicates")
+                .description("Votes refused because the voter already voted in the poll")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records that a voter is voting in a poll
+     *
+     * @return false if the voter already voted in it
+     * @throws VoterIndexFullException if the memory budget leaves no room for a new voter
+     */
+    public boolean register(String topic, String voterId) {
+        long hash = VoterIndex.hash(voterId);
+        VoterIndex index = indexFor(topic);
+        index.getLock().lock();
+        try {
+            if (index.contains(hash)) {
+                duplicates.increment();
+                return false;
+            }
+            ensureRoom(index);
+            index.add(hash);
+            return true;
+        } finally {
+            index.getLock().unlock();
+        }
+    }
+
+    /**
+     * Forgets a registration whose vote could not be stored, so the voter can try again
+     */
+    public void release(String topic, String voterId) {
+        VoterIndex index = indexes.get(topic);
+        if (index != null) {
+            index.getLock().lock();
+            try {
+                index.remove(VoterIndex.hash(voterId));
+            } finally {
+                index.getLock().unlock();
+            }
+        }
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    private VoterIndex indexFor(String topic) {
+        VoterIndex index = indexes.computeIfAbsent(topic, k -> {
+            VoterIndex created = new VoterIndex(initialCapacity);
+            allocatedBytes.addAndGet(created.sizeInBytes());
+            return created;
+        });
+        if (!index.isLoaded()) {
+            index.getLock().lock();
+            try {
+                if (!index.isLoaded()) {
+                    load(topic, index);
+                    index.setLoaded(true);
+                }
+            } finally {
+                index.getLock().unlock();
+            }
+        }
+        return index;
+    }
+
+    private void ensureRoom(VoterIndex index) {
+        if (!index.isFull()) {
+            return;
+        }
+        long extra = index.sizeInBytesAfterGrowth() - index.sizeInBytes();
+        if (allocatedBytes.addAndGet(extra) > memoryBudgetBytes) {
+            allocatedBytes.addAndGet(-extra);
+            throw new VoterIndexFullException(memoryBudgetBytes);
+        }
+        index.grow();
+    }
+
+    /**
+     * Reads every voter ID already in the topic, up to the end offsets seen
+     * when loading starts
+     */
+    private void load(String topic, VoterIndex index) {
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(topic);
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return;
+            }
+            List<TopicPartition> partitions = partitionInfos.stream()
+                    .map(info -> new TopicPartition(topic, info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            long deadline = System.currentTimeMillis() + maxLoadTime.toMillis();
+            while (!reachedEnd(consumer, endOffsets)) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("Timed out rebuilding voter index of topic " + topic);
+                }
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(pollTimeout)) {
+                    if (record.key() != null) {
+                        long hash = VoterIndex.hash(record.key());
+                        if (!index.contains(hash)) {
+                            ensureRoom(index);
+                            index.add(hash);
+                        }
+                    }
+                }
+            }
+            System.out.println("Rebuilt voter index of topic " + topic + " with " + index.size() + " voters");
+        }
+    }
+
+    private static boolean reachedEnd(Consumer<String, byte[]> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Thrown when no new voter fits in the configured memory budget
+     */
+    public static class VoterIndexFullException extends RuntimeException {
+
+        public VoterIndexFullException(long memoryBudgetBytes) {
+            super("Voter index memory budget of " + memoryBudgetBytes + " bytes is used up");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.project.publisher.service;
+
+import com.project.publisher.model.PublishStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Status of votes published through /api/publish/async, by publish ID.
+ *
+ * Finished entries are kept for {@code retention} so callers can pick up
+ * the outcome after the fact; at most {@code maxTracked} entries exist at
+ * once, and new async publishes are refused with 503 beyond that.
+ */
+@Service
+public class PublishRegistry {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration retention;
+    private final int maxTracked;
+
+    public PublishRegistry(@Value("${publisher.async.retention:10m}") Duration retention,
+                           @Value("${publisher.async.max-tracked:100000}") int maxTracked,
+                           MeterRegistry meterRegistry) {
+        this.retention = retention;
+        this.maxTracked = maxTracked;
+        Gauge.builder("publisher.async.tracked", entries, Map::size)
+                .description("Async publishes whose status is being kept")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts tracking a new publish and returns its PENDING status
+     */
+    public PublishStatus accept(String topic) {
+        if (entries.size() >= maxTracked) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Tracking " + maxTracked + " async publishes already, try again later");
+        }
+        PublishStatus status = PublishStatus.pending(UUID.randomUUID().toString(), topic);
+        entries.put(status.getId(), new Entry(status));
+        return status;
+    }
+
+    public void complete(PublishStatus status) {
+        Entry entry = entries.get(status.getId());
+        if (entry != null) {
+            entry.status = status;
+            entry.done.complete(status);
+        }
+    }
+
+    /**
+     * Forgets a publish that never reached the producer
+     */
+    public void discard(String id) {
+        entries.remove(id);
+    }
+
+    /**
+     * The current status, or once it is done when that happens within {@code wait}
+     *
+     * @throws ResponseStatusException 404 for an unknown or expired publish ID
+     */
+    public CompletableFuture<PublishStatus> status(String id, Duration wait) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown publish " + id);
+        }
+        PublishStatus current = entry.status;
+        if (current.isDone() || wait.isZero() || wait.isNegative()) {
+            return CompletableFuture.completedFuture(current);
+        }
+        // copy() so timing out one waiter does not complete the shared future
+        return entry.done.copy().completeOnTimeout(current, wait.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${publisher.async.purge-ms:10000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        entries.values().removeIf(entry -> entry.status.isDone() && entry.status.getCompletedAt() < cutoff);
+    }
+
+    private static class Entry {
+
+        private volatile PublishStatus status;
+        private final CompletableFuture<PublishStatus> done = new CompletableFuture<>();
+
+        Entry(PublishStatus status) {
+            this.status = status;
+        }
+    }
+}
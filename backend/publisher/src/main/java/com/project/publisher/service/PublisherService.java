@@ -1,27 +1,44 @@
 package com.project.publisher.service;
 
+import com.project.publisher.model.BatchPublishResult;
+import com.project.publisher.model.PublishStatus;
+import com.project.publisher.model.TopicMetadata;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.publisher.model.VoteRecord;
+import com.project.publisher.model.VoteRequest;
+import com.project.publisher.model.VoteResult;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
 import org.apache.kafka.clients.admin.AdminClient;
-import org.apache.kafka.clients.admin.ListTopicsResult;
+import org.apache.kafka.clients.admin.NewPartitions;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.errors.InvalidPartitionsException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
 
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class PublisherService {
 
     private final RestTemplate restTemplate;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final DeliveryTracker deliveryTracker;
+    private final DuplicateVoteFilter duplicateVoteFilter;
+    private final PublishRegistry publishRegistry;
+    private final TopicMetadataCache topicMetadataCache;
+    private final ObjectMapper objectMapper = new ObjectMapper();
     private final AdminClient adminClient;
 
     @Value("${coordinator.url}")
@@ -30,15 +47,39 @@ public class PublisherService {
     @Value("${server.port}")
     private int port;
 
+    @Value("${kafka.topic.partitions:1}")
+    private int topicPartitions;
+
+    @Value("${kafka.topic.replication-factor:1}")
+    private short topicReplicationFactor;
+
+    @Value("${publisher.batch.max-size:10000}")
+    private int maxBatchSize;
+
+    @Value("${publisher.batch.ack-timeout:15s}")
+    private Duration ackTimeout;
+
+    @Value("${publisher.async.ack-timeout:15s}")
+    private Duration asyncAckTimeout;
+
+    // Bounds every wait on the Kafka admin client so a stalled cluster cannot hold request threads forever
+    @Value("${kafka.admin.timeout:10s}")
+    private Duration adminTimeout;
+
     private String leaderBroker;
-    private List<String> topics = new ArrayList<>();
     private long logicalClock = 0;
 
     public PublisherService(RestTemplate restTemplate, 
-                           KafkaTemplate<String, String> kafkaTemplate,
+                           DeliveryTracker deliveryTracker,
+                           DuplicateVoteFilter duplicateVoteFilter,
+                           PublishRegistry publishRegistry,
+                           TopicMetadataCache topicMetadataCache,
                            AdminClient adminClient) {
         this.restTemplate = restTemplate;
-        this.kafkaTemplate = kafkaTemplate;
+        this.deliveryTracker = deliveryTracker;
+        this.duplicateVoteFilter = duplicateVoteFilter;
+        this.publishRegistry = publishRegistry;
+        this.topicMetadataCache = topicMetadataCache;
         this.adminClient = adminClient;
     }
 
@@ -47,10 +88,9 @@ public class PublisherService {
         updateLeaderBroker();
         createTopic("Candidate_1");
         createTopic("Candidate_2");
-        syncTopics();
     }
 
-    @Scheduled(fixedRate = 5000)
+    @Scheduled(fixedDelay = 5000)
     public void updateLeaderBroker() {
         incrementClock();
         try {
@@ -61,32 +101,198 @@ public class PublisherService {
         }
     }
 
-    @Scheduled(fixedRate = 3000)
-    public void syncTopics() {
+    /**
+     * Publishes a vote. With a voter ID, a second vote by the same voter in
+     * the same poll is refused with 409 and the ID becomes the record key.
+     */
+    public void publishMessage(String topic, String message, String voterId) {
         incrementClock();
+        String key = voterId == null || voterId.isBlank() ? null : voterId;
+        if (key != null && !registerVoter(topic, key)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Voter " + key + " already voted in " + topic);
+        }
         try {
-            ListTopicsResult listTopicsResult = adminClient.listTopics();
-            Set<String> kafkaTopics = listTopicsResult.names().get();
-            // Remove internal Kafka topics
-            kafkaTopics.removeIf(topic -> topic.startsWith("__"));
-            this.topics = new ArrayList<>(kafkaTopics);
-            System.out.println("Synced topics with Kafka: " + topics);
+            // Send message to Kafka topic
+            deliveryTracker.send(topic, key, toVoteRecord(topic, message, key)).whenComplete((result, error) -> {
+                if (error != null) {
+                    releaseVoter(topic, key);
+                    System.out.println("Failed to publish message to Kafka topic " + topic + ": " + error.getMessage());
+                }
+            });
+            System.out.println("Published message to Kafka topic " + topic + ": " + message);
+        } catch (DeliveryTracker.InFlightLimitExceededException e) {
+            releaseVoter(topic, key);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
         } catch (Exception e) {
+            releaseVoter(topic, key);
             e.printStackTrace();
         }
     }
 
-    public void publishMessage(String topic, String message) {
+    /**
+     * Publishes a vote without waiting for Kafka. Returns its PENDING status
+     * as soon as the producer has taken the record; the outcome is recorded
+     * under the returned ID when the producer future resolves. Refused with
+     * 503 right away, instead of waiting, when the in-flight budget is used up.
+     */
+    public PublishStatus publishAsync(String topic, String message, String voterId) {
         incrementClock();
+        String key = voterId == null || voterId.isBlank() ? null : voterId;
+        if (key != null && !registerVoter(topic, key)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Voter " + key + " already voted in " + topic);
+        }
+        PublishStatus pending;
         try {
-            // Send message to Kafka topic
-            kafkaTemplate.send(topic, message);
-            System.out.println("Published message to Kafka topic " + topic + ": " + message);
+            pending = publishRegistry.accept(topic);
+        } catch (ResponseStatusException e) {
+            releaseVoter(topic, key);
+            throw e;
+        }
+        try {
+            // Never waits for an in-flight slot, so the publish ID comes back right away
+            deliveryTracker.trySend(topic, key, toVoteRecord(topic, message, key))
+                    .orTimeout(asyncAckTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((result, error) -> {
+                        if (error == null) {
+                            publishRegistry.complete(pending.committed(
+                                    result.getRecordMetadata().partition(), result.getRecordMetadata().offset()));
+                        } else if (error instanceof TimeoutException) {
+                            // May still be stored, so the voter stays registered
+                            publishRegistry.complete(pending.failed(PublishStatus.State.UNKNOWN, describe(error)));
+                        } else {
+                            releaseVoter(topic, key);
+                            publishRegistry.complete(pending.failed(PublishStatus.State.FAILED, describe(error)));
+                        }
+                    });
+            return pending;
+        } catch (DeliveryTracker.InFlightLimitExceededException e) {
+            releaseVoter(topic, key);
+            publishRegistry.discard(pending.getId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (RuntimeException e) {
+            releaseVoter(topic, key);
+            publishRegistry.discard(pending.getId());
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, describe(e));
+        }
+    }
+
+    public CompletableFuture<PublishStatus> getPublishStatus(String id, Duration wait) {
+        incrementClock();
+        return publishRegistry.status(id, wait);
+    }
+
+    /**
+     * Hands every vote to the producer without waiting in between, so they are
+     * sent in as few Kafka requests as possible, and completes once Kafka has
+     * stored or rejected each one
+     */
+    public CompletableFuture<BatchPublishResult> publishBatch(List<VoteRequest> votes) {
+        incrementClock();
+        if (votes.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "A batch may hold at most " + maxBatchSize + " votes");
+        }
+        List<CompletableFuture<VoteResult>> pending = new ArrayList<>(votes.size());
+        for (int i = 0; i < votes.size(); i++) {
+            pending.add(send(i, votes.get(i)));
+        }
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    List<VoteResult> results = new ArrayList<>(pending.size());
+                    pending.forEach(result -> results.add(result.join()));
+                    BatchPublishResult batchResult = new BatchPublishResult(results);
+                    System.out.println("Published batch of " + votes.size() + " votes: "
+                            + batchResult.getStored() + " stored, " + batchResult.getDuplicates() + " duplicates, "
+                            + batchResult.getFailed() + " failed");
+                    return batchResult;
+                });
+    }
+
+    private CompletableFuture<VoteResult> send(int index, VoteRequest vote) {
+        if (vote == null || vote.getTopic() == null || vote.getTopic().isBlank() || vote.getMessage() == null) {
+            return CompletableFuture.completedFuture(
+                    VoteResult.failed(index, vote == null ? null : vote.getTopic(), "topic and message are required"));
+        }
+        String topic = vote.getTopic();
+        String key = vote.getVoterId() == null || vote.getVoterId().isBlank() ? null : vote.getVoterId();
+        try {
+            if (key != null && !duplicateVoteFilter.register(topic, key)) {
+                return CompletableFuture.completedFuture(VoteResult.duplicate(index, topic));
+            }
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(VoteResult.failed(index, topic, describe(e)));
+        }
+        try {
+            return deliveryTracker.send(topic, key, toVoteRecord(topic, vote.getMessage(), key))
+                    .orTimeout(ackTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .handle((sendResult, error) -> {
+                        if (error == null) {
+                            return VoteResult.stored(index, topic,
+                                    sendResult.getRecordMetadata().partition(), sendResult.getRecordMetadata().offset());
+                        }
+                        // A vote that timed out may still be stored, so the voter stays registered
+                        if (!(error instanceof TimeoutException)) {
+                            releaseVoter(topic, key);
+                        }
+                        return VoteResult.failed(index, topic, describe(error));
+                    });
         } catch (Exception e) {
-            e.printStackTrace();
+            // The record can be refused up front, e.g. when too many are already waiting for Kafka
+            releaseVoter(topic, key);
+            return CompletableFuture.completedFuture(VoteResult.failed(index, topic, describe(e)));
         }
     }
 
+    /**
+     * Votes arrive as {"name": ..., "vote": ...} or as a bare candidate. The
+     * voter is the voterId when one was given, otherwise the name.
+     */
+    private VoteRecord toVoteRecord(String topic, String message, String voterId) {
+        String candidate = message;
+        String voter = voterId;
+        long clientTimestamp = System.currentTimeMillis();
+        if (!message.isEmpty() && message.charAt(0) == '{') {
+            try {
+                JsonNode vote = objectMapper.readTree(message);
+                if (vote.hasNonNull("vote")) {
+                    candidate = vote.get("vote").asText();
+                }
+                if (voter == null && vote.hasNonNull("name")) {
+                    voter = vote.get("name").asText();
+                }
+                if (vote.hasNonNull("timestamp")) {
+                    clientTimestamp = vote.get("timestamp").asLong();
+                }
+            } catch (Exception e) {
+                // Not JSON after all, the whole message is the candidate
+            }
+        }
+        return new VoteRecord(topic, candidate, voter, clientTimestamp, getLogicalClock());
+    }
+
+    private boolean registerVoter(String topic, String voterId) {
+        try {
+            return duplicateVoteFilter.register(topic, voterId);
+        } catch (RuntimeException e) {
+            // Budget used up or the index could not be rebuilt; refuse rather than risk a double vote
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    private void releaseVoter(String topic, String voterId) {
+        if (voterId != null) {
+            duplicateVoteFilter.release(topic, voterId);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
     public String getCoordinatorUrl() {
         return coordinatorUrl;
     }
@@ -121,16 +327,70 @@ public class PublisherService {
     }
 
     public List<String> getTopics() {
-        return topics;
+        return new ArrayList<>(topicMetadataCache.getTopicNames());
+    }
+
+    public int getPartitionCount(String topic) {
+        return getTopicMetadata(topic, false).getPartitions();
+    }
+
+    /**
+     * Partition count of a poll's topic and, if asked for, its configs, from the metadata cache
+     */
+    public TopicMetadata getTopicMetadata(String topic, boolean withConfigs) {
+        incrementClock();
+        try {
+            int partitions = topicMetadataCache.getPartitionCount(topic);
+            if (partitions < 0) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown topic " + topic);
+            }
+            return new TopicMetadata(topic, partitions, withConfigs ? topicMetadataCache.getConfigs(topic) : null);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, describe(e));
+        }
+    }
+
+    /**
+     * Grows an active poll's topic to {@code count} partitions. Existing votes
+     * stay where they are; subscribers pick up the new partitions on their
+     * next topic sync.
+     */
+    public int growPartitions(String topic, int count) {
+        incrementClock();
+        try {
+            adminClient.createPartitions(Collections.singletonMap(topic, NewPartitions.increaseTo(count))).all()
+                    .get(adminTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            topicMetadataCache.record(topic, count);
+            System.out.println("Grew Kafka topic " + topic + " to " + count + " partitions");
+            return count;
+        } catch (ExecutionException e) {
+            throw adminError(topic, e);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Timed out growing topic " + topic);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        }
+    }
+
+    private static ResponseStatusException adminError(String topic, ExecutionException e) {
+        if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown topic " + topic);
+        }
+        if (e.getCause() instanceof InvalidPartitionsException) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getCause().getMessage());
+        }
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, describe(e));
     }
 
     private void createTopic(String topicName) {
         try {
-            NewTopic newTopic = new NewTopic(topicName, 1, (short) 1);
-            adminClient.createTopics(Collections.singleton(newTopic)).all().get();
-            System.out.println("Created Kafka topic: " + topicName);
-            syncTopics();
-        } catch (InterruptedException | ExecutionException e) {
+            NewTopic newTopic = new NewTopic(topicName, topicPartitions, topicReplicationFactor);
+            adminClient.createTopics(Collections.singleton(newTopic)).all()
+                    .get(adminTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            topicMetadataCache.record(topicName, topicPartitions);
+            System.out.println("Created Kafka topic: " + topicName + " with " + topicPartitions + " partitions");
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
             // Topic might already exist, which is fine
             System.out.println("Note: Topic " + topicName + " may already exist");
         }
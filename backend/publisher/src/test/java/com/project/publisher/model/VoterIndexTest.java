@@ -0,0 +1,86 @@
+package com.project.publisher.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VoterIndexTest {
+
+    private static void add(VoterIndex index, long hash) {
+        if (index.isFull()) {
+            index.grow();
+        }
+        index.add(hash);
+    }
+
+    @Test
+    void addsEachVoterOnce() {
+        VoterIndex index = new VoterIndex(16);
+        long alice = VoterIndex.hash("alice");
+
+        assertThat(index.add(alice)).isTrue();
+        assertThat(index.add(alice)).isFalse();
+        assertThat(index.contains(alice)).isTrue();
+        assertThat(index.contains(VoterIndex.hash("bob"))).isFalse();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void hashIsStableAndNeverZero() {
+        assertThat(VoterIndex.hash("voter-1")).isEqualTo(VoterIndex.hash("voter-1"));
+        assertThat(VoterIndex.hash("voter-1")).isNotEqualTo(VoterIndex.hash("voter-2"));
+        assertThat(VoterIndex.hash("")).isNotZero();
+    }
+
+    @Test
+    void keepsEveryVoterAcrossGrowth() {
+        VoterIndex index = new VoterIndex(16);
+        for (int i = 0; i < 10_000; i++) {
+            add(index, VoterIndex.hash("voter-" + i));
+        }
+
+        assertThat(index.size()).isEqualTo(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(index.contains(VoterIndex.hash("voter-" + i))).isTrue();
+        }
+        assertThat(index.contains(VoterIndex.hash("voter-10000"))).isFalse();
+    }
+
+    @Test
+    void removalKeepsProbeChainsIntact() {
+        VoterIndex index = new VoterIndex(64);
+        Random random = new Random(42);
+        Set<Long> expected = new HashSet<>();
+        List<Long> added = new ArrayList<>();
+        // Hashes sharing their low bits all land in the same home slot and form one long chain
+        for (int i = 0; i < 40; i++) {
+            long hash = ((long) random.nextInt() << 32) | 5;
+            add(index, hash);
+            expected.add(hash);
+            added.add(hash);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            long hash = random.nextLong() | 1;
+            add(index, hash);
+            expected.add(hash);
+            added.add(hash);
+        }
+
+        for (int i = 0; i < added.size(); i += 2) {
+            assertThat(index.remove(added.get(i))).isTrue();
+            expected.remove(added.get(i));
+        }
+
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (long hash : added) {
+            assertThat(index.contains(hash)).as("hash %d", hash).isEqualTo(expected.contains(hash));
+        }
+        assertThat(index.remove(added.get(0))).isFalse();
+    }
+}
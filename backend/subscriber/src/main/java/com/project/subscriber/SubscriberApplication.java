@@ -1,19 +1,31 @@
 package com.project.subscriber;
 
+import com.project.subscriber.model.VoteRecord;
+import com.project.subscriber.service.BrokerFeedService;
+import com.project.subscriber.service.CheckpointService;
+import com.project.subscriber.service.MessageStoreService;
+import com.project.subscriber.service.RateService;
+import com.project.subscriber.service.ResultsStreamService;
 import com.project.subscriber.service.SubscriberService;
+import com.project.subscriber.service.TallyService;
+import com.project.subscriber.service.TopicMetadataCache;
+import com.project.subscriber.service.TopicReader;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
-import org.apache.kafka.clients.admin.AdminClient;
-import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+
 @SpringBootApplication
 @EnableScheduling
 public class SubscriberApplication {
@@ -28,8 +40,13 @@ public class SubscriberApplication {
 	}
 
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public RestTemplate restTemplate(RestTemplateBuilder builder,
+									 @Value("${rest.client.connect-timeout:2s}") Duration connectTimeout,
+									 @Value("${rest.client.read-timeout:5s}") Duration readTimeout) {
+		return builder
+				.setConnectTimeout(connectTimeout)
+				.setReadTimeout(readTimeout)
+				.build();
 	}
 
 	@EventListener
@@ -40,9 +57,19 @@ public class SubscriberApplication {
 
 	@Bean
 	public SubscriberService subscriberService(RestTemplate restTemplate,
-											 AdminClient adminClient,
-											 KafkaListenerEndpointRegistry kafkaListenerRegistry) {
-		SubscriberService subscriberService = new SubscriberService(restTemplate, adminClient, kafkaListenerRegistry);
+											 TopicMetadataCache topicMetadataCache,
+											 ConcurrentKafkaListenerContainerFactory<String, VoteRecord> kafkaListenerContainerFactory,
+											 TallyService tallyService,
+											 MessageStoreService messageStoreService,
+											 CheckpointService checkpointService,
+											 TopicReader topicReader,
+											 ResultsStreamService resultsStreamService,
+											 RateService rateService,
+											 BrokerFeedService brokerFeedService,
+											 MeterRegistry meterRegistry) {
+		SubscriberService subscriberService = new SubscriberService(restTemplate, topicMetadataCache, kafkaListenerContainerFactory,
+				tallyService, messageStoreService, checkpointService, topicReader, resultsStreamService, rateService,
+				brokerFeedService, meterRegistry);
 		subscriberService.setPort(port);
 		return subscriberService;
 	}
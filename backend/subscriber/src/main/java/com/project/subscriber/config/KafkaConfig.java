@@ -1,5 +1,8 @@
 package com.project.subscriber.config;
 
+import com.project.subscriber.model.VoteRecord;
+import com.project.subscriber.serialization.VoteRecordDeserializer;
+import com.project.subscriber.service.TopicReader;
 import org.apache.kafka.clients.admin.AdminClient;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
@@ -12,6 +15,7 @@ import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.KafkaAdmin;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,6 +28,27 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.kafka.consumer.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${spring.kafka.consumer.fetch-min-size:1}")
+    private int fetchMinBytes;
+
+    @Value("${spring.kafka.consumer.fetch-max-wait:500ms}")
+    private Duration fetchMaxWait;
+
+    @Value("${spring.kafka.listener.concurrency:1}")
+    private int concurrency;
+
+    @Value("${subscriber.reader.pool-size:2}")
+    private int readerPoolSize;
+
+    @Value("${subscriber.reader.poll-timeout:200ms}")
+    private Duration readerPollTimeout;
+
+    @Value("${subscriber.reader.max-read-time:10s}")
+    private Duration readerMaxReadTime;
+
     @Bean
     public KafkaAdmin kafkaAdmin() {
         Map<String, Object> configs = new HashMap<>();
@@ -39,20 +64,42 @@ public class KafkaConfig {
     }
 
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, VoteRecord> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, VoteRecordDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, (int) fetchMaxWait.toMillis());
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
+    /**
+     * Pooled reader for on-demand reloads of a topic. Its consumers have no
+     * group id and never commit; they are assigned partitions and seek directly.
+     */
+    @Bean
+    public TopicReader topicReader() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, VoteRecordDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return new TopicReader(new DefaultKafkaConsumerFactory<>(props), readerPoolSize, readerPollTimeout, readerMaxReadTime);
+    }
+
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+    public ConcurrentKafkaListenerContainerFactory<String, VoteRecord> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, VoteRecord> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        // Deliver each poll as one list so votes are applied a batch at a time
+        factory.setBatchListener(true);
+        // One consumer thread per partition; each owns the tally shards of its partitions
+        factory.setConcurrency(concurrency);
         return factory;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.project.subscriber.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How much raw vote history the subscriber keeps in memory.
+ *
+ * subscriber.retention.defaults.mode / max-messages / max-bytes apply to
+ * every topic, subscriber.retention.topics.&lt;topic&gt;.* override them for
+ * one topic, and subscriber.retention.heap-budget-bytes caps the history of
+ * all topics together. Vote counts are never evicted, only the raw messages behind them.
+ */
+@Component
+@ConfigurationProperties(prefix = "subscriber.retention")
+public class RetentionProperties {
+
+    public enum Mode {
+        /** Keep recent messages in a bounded ring buffer */
+        HISTORY,
+        /** Keep vote counts only, no raw messages */
+        AGGREGATES_ONLY
+    }
+
+    private Policy defaults = defaultPolicy();
+    private Map<String, Policy> topics = new HashMap<>();
+    private long heapBudgetBytes = 256L * 1024 * 1024;
+
+    private static Policy defaultPolicy() {
+        Policy policy = new Policy();
+        policy.setMode(Mode.HISTORY);
+        policy.setMaxMessages(10_000);
+        policy.setMaxBytes(4L * 1024 * 1024);
+        return policy;
+    }
+
+    public Policy policyFor(String topic) {
+        Policy override = topics.get(topic);
+        if (override == null) {
+            return defaults;
+        }
+        Policy merged = new Policy();
+        merged.setMode(override.getMode() != null ? override.getMode() : defaults.getMode());
+        merged.setMaxMessages(override.getMaxMessages() > 0 ? override.getMaxMessages() : defaults.getMaxMessages());
+        merged.setMaxBytes(override.getMaxBytes() > 0 ? override.getMaxBytes() : defaults.getMaxBytes());
+        return merged;
+    }
+
+    public Policy getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Policy defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Policy> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(Map<String, Policy> topics) {
+        this.topics = topics;
+    }
+
+    public long getHeapBudgetBytes() {
+        return heapBudgetBytes;
+    }
+
+    public void setHeapBudgetBytes(long heapBudgetBytes) {
+        this.heapBudgetBytes = heapBudgetBytes;
+    }
+
+    public static class Policy {
+
+        private Mode mode;
+        private int maxMessages;
+        private long maxBytes;
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getMaxMessages() {
+            return maxMessages;
+        }
+
+        public void setMaxMessages(int maxMessages) {
+            this.maxMessages = maxMessages;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+    }
+}
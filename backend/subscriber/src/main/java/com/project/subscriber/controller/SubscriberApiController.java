@@ -1,8 +1,16 @@
 package com.project.subscriber.controller;
 
+import com.project.subscriber.model.MessagePage;
+import com.project.subscriber.model.PollResults;
+import com.project.subscriber.model.RateSeries;
+import com.project.subscriber.model.TopicUpdate;
 import com.project.subscriber.service.SubscriberService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,6 +22,7 @@ import java.util.Map;
 public class SubscriberApiController {
 
     private static final Logger logger = LoggerFactory.getLogger(SubscriberApiController.class);
+    private static final int MAX_PAGE_SIZE = 1000;
 
     @Autowired
     private SubscriberService subscriberService;
@@ -45,6 +54,48 @@ public class SubscriberApiController {
         return messages;
     }
 
+    /**
+     * Pages through a topic partition by Kafka offset. Pass the returned
+     * nextCursor as {@code after} to fetch only messages not seen yet.
+     */
+    @GetMapping("/messages/{topic}/page")
+    public MessagePage getMessagePage(@PathVariable String topic,
+                                      @RequestParam(defaultValue = "0") int partition,
+                                      @RequestParam(defaultValue = "-1") long after,
+                                      @RequestParam(defaultValue = "100") int limit,
+                                      @RequestParam long timestamp) {
+        subscriberService.updateClock(timestamp);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return subscriberService.getMessagePage(topic, partition, after, limit);
+    }
+
+    @GetMapping("/results/{topic}")
+    public PollResults getResultsForTopic(@PathVariable String topic, @RequestParam long timestamp) {
+        subscriberService.updateClock(timestamp);
+        return subscriberService.getResultsForTopic(topic);
+    }
+
+    /**
+     * Votes per window for a topic, oldest window first. {@code window} is the
+     * window size in milliseconds and must be one of subscriber.timeseries.windows-ms.
+     */
+    @GetMapping("/timeseries/{topic}")
+    public RateSeries getTimeSeriesForTopic(@PathVariable String topic,
+                                            @RequestParam(defaultValue = "10000") long window,
+                                            @RequestParam long timestamp) {
+        subscriberService.updateClock(timestamp);
+        return subscriberService.getRatesForTopic(topic, window);
+    }
+
+    @GetMapping(value = "/stream/results/{topic}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamResultsForTopic(@PathVariable String topic, @RequestParam long timestamp) {
+        logger.info("Received RESULTS STREAM request for topic: {}, timestamp: {}", topic, timestamp);
+        subscriberService.updateClock(timestamp);
+        return subscriberService.streamResultsForTopic(topic);
+    }
+
     @GetMapping("/refresh-messages/{topic}")
     public List<String> refreshMessagesForTopic(@PathVariable String topic, @RequestParam long timestamp) {
         logger.info("Received REFRESH MESSAGES request for topic: {}, timestamp: {}", topic, timestamp);
@@ -67,6 +118,28 @@ public class SubscriberApiController {
         subscriberService.unsubscribeTopic(topic);
     }
 
+    /**
+     * Receives a batch of coalesced poll updates pushed by the leader broker;
+     * answers with the topics it needs a snapshot of
+     */
+    @PostMapping("/push")
+    public List<String> receivePush(@RequestBody List<TopicUpdate> updates, @RequestParam long timestamp) {
+        subscriberService.updateClock(timestamp);
+        return subscriberService.applyBrokerPush(updates);
+    }
+
+    @GetMapping("/pushed/results/{topic}")
+    public PollResults getPushedResultsForTopic(@PathVariable String topic, @RequestParam long timestamp) {
+        subscriberService.updateClock(timestamp);
+        return subscriberService.getPushedResultsForTopic(topic);
+    }
+
+    @GetMapping("/pushed/messages/{topic}")
+    public List<String> getPushedMessagesForTopic(@PathVariable String topic, @RequestParam long timestamp) {
+        subscriberService.updateClock(timestamp);
+        return subscriberService.getPushedMessagesForTopic(topic);
+    }
+
     @GetMapping("/leader-broker")
     public String getLeaderBroker(@RequestParam long timestamp) {
         subscriberService.updateClock(timestamp);
@@ -0,0 +1,31 @@
+package com.project.subscriber.controller;
+
+import com.project.subscriber.service.MessageStoreService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint (/actuator/topicmemory) reporting retained history per topic
+ */
+@Component
+@Endpoint(id = "topicmemory")
+public class TopicMemoryEndpoint {
+
+    private final MessageStoreService messageStoreService;
+
+    public TopicMemoryEndpoint(MessageStoreService messageStoreService) {
+        this.messageStoreService = messageStoreService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> topicMemory() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("totalEstimatedBytes", messageStoreService.totalBytes());
+        report.put("topics", messageStoreService.memoryUsage());
+        return report;
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.subscriber.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class Checkpoint {
+
+    private long createdAt;
+    private Map<String, TopicCheckpoint> topics = new HashMap<>();
+    // Unsubscribed topics: counts and offsets only, so a later subscribe can catch up
+    private Map<String, TopicCheckpoint> parkedTopics = new HashMap<>();
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Map<String, TopicCheckpoint> getTopics() {
+        return topics;
+    }
+
+    public void setTopics(Map<String, TopicCheckpoint> topics) {
+        this.topics = topics;
+    }
+
+    public Map<String, TopicCheckpoint> getParkedTopics() {
+        return parkedTopics;
+    }
+
+    public void setParkedTopics(Map<String, TopicCheckpoint> parkedTopics) {
+        this.parkedTopics = parkedTopics;
+    }
+}
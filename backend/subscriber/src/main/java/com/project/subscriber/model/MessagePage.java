@@ -0,0 +1,77 @@
+package com.project.subscriber.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a topic partition's messages. Pass {@code nextCursor} back as
+ * {@code after} to continue from where this page stopped.
+ */
+public class MessagePage {
+
+    private String topic;
+    private int partition;
+    private List<VoteMessage> messages = new ArrayList<>();
+    private long nextCursor;
+    private boolean hasMore;
+    private boolean historyTruncated;
+
+    public MessagePage() {
+    }
+
+    public MessagePage(String topic, int partition, List<VoteMessage> messages, long nextCursor, boolean hasMore) {
+        this.topic = topic;
+        this.partition = partition;
+        this.messages = messages;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    public List<VoteMessage> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<VoteMessage> messages) {
+        this.messages = messages;
+    }
+
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isHistoryTruncated() {
+        return historyTruncated;
+    }
+
+    public void setHistoryTruncated(boolean historyTruncated) {
+        this.historyTruncated = historyTruncated;
+    }
+}
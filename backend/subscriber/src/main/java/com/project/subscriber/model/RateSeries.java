@@ -0,0 +1,57 @@
+package com.project.subscriber.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consecutive vote-rate windows of one size for a topic, oldest first
+ */
+public class RateSeries {
+
+    private String topic;
+    private long windowMillis;
+    private long lastVoteTimestamp;
+    private List<RateWindow> windows = new ArrayList<>();
+
+    public RateSeries() {
+    }
+
+    public RateSeries(String topic, long windowMillis, long lastVoteTimestamp, List<RateWindow> windows) {
+        this.topic = topic;
+        this.windowMillis = windowMillis;
+        this.lastVoteTimestamp = lastVoteTimestamp;
+        this.windows = windows;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public long getLastVoteTimestamp() {
+        return lastVoteTimestamp;
+    }
+
+    public void setLastVoteTimestamp(long lastVoteTimestamp) {
+        this.lastVoteTimestamp = lastVoteTimestamp;
+    }
+
+    public List<RateWindow> getWindows() {
+        return windows;
+    }
+
+    public void setWindows(List<RateWindow> windows) {
+        this.windows = windows;
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.subscriber.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Votes received in one tumbling window, starting at {@code start} (epoch millis)
+ */
+public class RateWindow {
+
+    private long start;
+    private long total;
+    private Map<String, Long> counts = new HashMap<>();
+
+    public RateWindow() {
+    }
+
+    public RateWindow(long start, long total, Map<String, Long> counts) {
+        this.start = start;
+        this.total = total;
+        this.counts = counts;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public void setStart(long start) {
+        this.start = start;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<String, Long> counts) {
+        this.counts = counts;
+    }
+}
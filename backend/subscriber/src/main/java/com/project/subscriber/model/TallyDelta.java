@@ -0,0 +1,48 @@
+package com.project.subscriber.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Change in a topic's vote counts since the previous streamed update.
+ * The first event on a stream carries the full counts as its deltas.
+ */
+public class TallyDelta {
+
+    private String topic;
+    private long totalVotes;
+    private Map<String, Long> deltas = new HashMap<>();
+
+    public TallyDelta() {
+    }
+
+    public TallyDelta(String topic, long totalVotes, Map<String, Long> deltas) {
+        this.topic = topic;
+        this.totalVotes = totalVotes;
+        this.deltas = deltas;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public long getTotalVotes() {
+        return totalVotes;
+    }
+
+    public void setTotalVotes(long totalVotes) {
+        this.totalVotes = totalVotes;
+    }
+
+    public Map<String, Long> getDeltas() {
+        return deltas;
+    }
+
+    public void setDeltas(Map<String, Long> deltas) {
+        this.deltas = deltas;
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.subscriber.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saved state of one topic: its vote counts, the retained history and the
+ * next offset to read on each partition
+ */
+public class TopicCheckpoint {
+
+    private Map<String, Long> counts = new HashMap<>();
+    private Map<Integer, Long> nextOffsets = new HashMap<>();
+    private List<VoteMessage> messages = new ArrayList<>();
+
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<String, Long> counts) {
+        this.counts = counts;
+    }
+
+    public Map<Integer, Long> getNextOffsets() {
+        return nextOffsets;
+    }
+
+    public void setNextOffsets(Map<Integer, Long> nextOffsets) {
+        this.nextOffsets = nextOffsets;
+    }
+
+    public List<VoteMessage> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<VoteMessage> messages) {
+        this.messages = messages;
+    }
+}
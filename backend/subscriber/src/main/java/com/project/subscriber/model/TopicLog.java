@@ -0,0 +1,275 @@
+package com.project.subscriber.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Recent votes for one topic, kept per partition in offset order so a
+ * reader can resume from any offset with a binary search.
+ *
+ * History is bounded by a message count and an estimated byte size. When
+ * either is exceeded the oldest message across all partitions is dropped;
+ * it has already been counted in the topic's tally, so only the raw
+ * message is lost.
+ */
+public class TopicLog {
+
+    // Rough per-message footprint on top of the payload characters:
+    // the VoteMessage, its String and the String's backing array
+    private static final int MESSAGE_OVERHEAD_BYTES = 80;
+
+    private final Map<Integer, PartitionRing> partitions = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int maxMessages;
+    private long maxBytes;
+    private int size;
+    private long bytes;
+    private long evicted;
+    private volatile long lastViewed = System.currentTimeMillis();
+
+    public TopicLog(int maxMessages, long maxBytes) {
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Appends messages read from Kafka; within a partition they arrive in offset order
+     */
+    public void append(List<VoteMessage> messages) {
+        lock.writeLock().lock();
+        try {
+            for (VoteMessage message : messages) {
+                add(message);
+            }
+            trim();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(List<VoteMessage> messages) {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+            // Only the newest messages can survive the limits, skip the rest up front
+            int from = Math.max(0, messages.size() - maxMessages);
+            for (VoteMessage message : messages.subList(from, messages.size())) {
+                add(message);
+            }
+            evicted += from;
+            trim();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops all retained history, keeping only the running counters
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long evictedCount() {
+        lock.readLock().lock();
+        try {
+            return evicted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getLastViewed() {
+        return lastViewed;
+    }
+
+    public void touch() {
+        lastViewed = System.currentTimeMillis();
+    }
+
+    /**
+     * All retained message payloads, partition by partition
+     */
+    public List<String> values() {
+        lock.readLock().lock();
+        try {
+            List<String> values = new ArrayList<>(size);
+            for (PartitionRing ring : partitions.values()) {
+                for (int i = 0; i < ring.size; i++) {
+                    values.add(ring.get(i).text());
+                }
+            }
+            return values;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copy of all retained messages, partition by partition
+     */
+    public List<VoteMessage> messages() {
+        lock.readLock().lock();
+        try {
+            List<VoteMessage> messages = new ArrayList<>(size);
+            for (PartitionRing ring : partitions.values()) {
+                for (int i = 0; i < ring.size; i++) {
+                    messages.add(ring.get(i));
+                }
+            }
+            return messages;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} messages of a partition with an offset greater than {@code after}
+     */
+    public MessagePage page(String topic, int partition, long after, int limit) {
+        lock.readLock().lock();
+        try {
+            PartitionRing ring = partitions.get(partition);
+            if (ring == null) {
+                return new MessagePage(topic, partition, new ArrayList<>(), after, false);
+            }
+            int from = ring.firstAfter(after);
+            int to = Math.min(ring.size, from + limit);
+            List<VoteMessage> page = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                page.add(ring.get(i));
+            }
+            long nextCursor = page.isEmpty() ? after : page.get(page.size() - 1).getOffset();
+            MessagePage result = new MessagePage(topic, partition, page, nextCursor, to < ring.size);
+            // Messages between the cursor and the oldest retained one were evicted
+            result.setHistoryTruncated(ring.size > 0 && ring.get(0).getOffset() > after + 1 && ring.evictedAny);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(VoteMessage message) {
+        partitions.computeIfAbsent(message.getPartition(), k -> new PartitionRing()).add(message);
+        size++;
+        bytes += estimateBytes(message);
+    }
+
+    private void trim() {
+        while (size > 0 && (size > maxMessages || bytes > maxBytes)) {
+            PartitionRing oldest = null;
+            for (PartitionRing ring : partitions.values()) {
+                if (ring.size > 0 && (oldest == null || ring.get(0).getTimestamp() < oldest.get(0).getTimestamp())) {
+                    oldest = ring;
+                }
+            }
+            VoteMessage removed = oldest.removeFirst();
+            size--;
+            bytes -= estimateBytes(removed);
+            evicted++;
+        }
+    }
+
+    private void clearLocked() {
+        evicted += size;
+        for (PartitionRing ring : partitions.values()) {
+            ring.evictedAny |= ring.size > 0;
+            ring.clear();
+        }
+        size = 0;
+        bytes = 0;
+    }
+
+    private static long estimateBytes(VoteMessage message) {
+        // Candidate strings are shared between votes, so only the per-vote ones count
+        return MESSAGE_OVERHEAD_BYTES + length(message.getValue()) + length(message.getVoterId());
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Growable ring buffer of one partition's messages in offset order
+     */
+    private static final class PartitionRing {
+
+        private VoteMessage[] items = new VoteMessage[16];
+        private int head;
+        private int size;
+        private boolean evictedAny;
+
+        private void add(VoteMessage message) {
+            if (size == items.length) {
+                VoteMessage[] grown = new VoteMessage[items.length * 2];
+                for (int i = 0; i < size; i++) {
+                    grown[i] = get(i);
+                }
+                items = grown;
+                head = 0;
+            }
+            items[(head + size) & (items.length - 1)] = message;
+            size++;
+        }
+
+        private VoteMessage get(int index) {
+            return items[(head + index) & (items.length - 1)];
+        }
+
+        private VoteMessage removeFirst() {
+            VoteMessage message = items[head];
+            items[head] = null;
+            head = (head + 1) & (items.length - 1);
+            size--;
+            evictedAny = true;
+            return message;
+        }
+
+        private void clear() {
+            items = new VoteMessage[16];
+            head = 0;
+            size = 0;
+        }
+
+        private int firstAfter(long after) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (get(mid).getOffset() <= after) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
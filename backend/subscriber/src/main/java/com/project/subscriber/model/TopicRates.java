@@ -0,0 +1,131 @@
+package com.project.subscriber.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Votes per tumbling window for one topic, at several window sizes at once.
+ *
+ * Each window size is a ring of fixed-size buckets keyed by window number
+ * (timestamp / window size). Counts live in flat long arrays indexed by
+ * bucket and candidate slot, so recording a vote allocates nothing once the
+ * candidate has been seen. A bucket is reused as soon as a newer window
+ * lands on it; votes older than the ring are left to the running tally.
+ */
+public class TopicRates {
+
+    private final long[] windowMillis;
+    private final int buckets;
+    // Per window size: window number held by each bucket, and its vote total
+    private final long[][] bucketWindow;
+    private final long[][] bucketTotal;
+    // Per window size: counts[bucket * candidateCapacity + slot]
+    private final long[][] bucketCounts;
+    private final Map<String, Integer> slots = new HashMap<>();
+    private String[] candidates = new String[8];
+    private int candidateCapacity = 8;
+    private long lastVoteTimestamp = -1;
+
+    public TopicRates(long[] windowMillis, int buckets) {
+        this.windowMillis = windowMillis;
+        this.buckets = buckets;
+        this.bucketWindow = new long[windowMillis.length][buckets];
+        this.bucketTotal = new long[windowMillis.length][buckets];
+        this.bucketCounts = new long[windowMillis.length][buckets * candidateCapacity];
+        for (long[] windows : bucketWindow) {
+            Arrays.fill(windows, -1);
+        }
+    }
+
+    /**
+     * Records one batch; {@code candidates[i]} is the candidate of {@code messages.get(i)}
+     */
+    public synchronized void recordAll(List<VoteMessage> messages, String[] candidates) {
+        for (int i = 0; i < candidates.length; i++) {
+            long timestamp = messages.get(i).getTimestamp();
+            if (timestamp < 0) {
+                // Record carried no timestamp; count it as arriving now
+                timestamp = System.currentTimeMillis();
+            }
+            int slot = slotOf(candidates[i]);
+            for (int w = 0; w < windowMillis.length; w++) {
+                long window = timestamp / windowMillis[w];
+                int bucket = (int) (window % buckets);
+                long held = bucketWindow[w][bucket];
+                if (held != window) {
+                    if (held > window) {
+                        // Older than anything the ring still covers
+                        continue;
+                    }
+                    resetBucket(w, bucket, window);
+                }
+                bucketTotal[w][bucket]++;
+                bucketCounts[w][bucket * candidateCapacity + slot]++;
+            }
+            lastVoteTimestamp = Math.max(lastVoteTimestamp, timestamp);
+        }
+    }
+
+    /**
+     * The most recent {@code buckets} windows of the given size up to {@code now},
+     * oldest first; windows without votes are included with zero counts
+     */
+    public synchronized RateSeries series(String topic, int windowIndex, long now) {
+        long size = windowMillis[windowIndex];
+        long latest = now / size;
+        List<RateWindow> windows = new ArrayList<>(buckets);
+        for (long window = latest - buckets + 1; window <= latest; window++) {
+            int bucket = (int) (window % buckets);
+            Map<String, Long> counts = new HashMap<>();
+            long total = 0;
+            if (window >= 0 && bucketWindow[windowIndex][bucket] == window) {
+                total = bucketTotal[windowIndex][bucket];
+                int base = bucket * candidateCapacity;
+                for (int slot = 0; slot < slots.size(); slot++) {
+                    long count = bucketCounts[windowIndex][base + slot];
+                    if (count > 0) {
+                        counts.put(candidates[slot], count);
+                    }
+                }
+            }
+            windows.add(new RateWindow(window * size, total, counts));
+        }
+        return new RateSeries(topic, size, lastVoteTimestamp, windows);
+    }
+
+    private void resetBucket(int w, int bucket, long window) {
+        bucketWindow[w][bucket] = window;
+        bucketTotal[w][bucket] = 0;
+        Arrays.fill(bucketCounts[w], bucket * candidateCapacity, (bucket + 1) * candidateCapacity, 0);
+    }
+
+    private int slotOf(String candidate) {
+        Integer slot = slots.get(candidate);
+        if (slot != null) {
+            return slot;
+        }
+        int next = slots.size();
+        if (next == candidateCapacity) {
+            growCandidates();
+        }
+        candidates[next] = candidate;
+        slots.put(candidate, next);
+        return next;
+    }
+
+    private void growCandidates() {
+        int grownCapacity = candidateCapacity * 2;
+        for (int w = 0; w < windowMillis.length; w++) {
+            long[] grown = new long[buckets * grownCapacity];
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                System.arraycopy(bucketCounts[w], bucket * candidateCapacity, grown, bucket * grownCapacity, candidateCapacity);
+            }
+            bucketCounts[w] = grown;
+        }
+        candidates = Arrays.copyOf(candidates, grownCapacity);
+        candidateCapacity = grownCapacity;
+    }
+}
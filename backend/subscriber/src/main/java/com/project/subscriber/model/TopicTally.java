@@ -0,0 +1,118 @@
+package com.project.subscriber.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Running per-candidate vote counts for a single topic, sharded by Kafka
+ * partition.
+ *
+ * A partition is only ever consumed by one listener thread at a time, so
+ * each shard has a single writer and is updated with plain increments
+ * published through release writes, without locks or CAS loops. Readers
+ * merge the shards when results are requested; the cost is proportional
+ * to partitions x candidates, not to the number of votes.
+ */
+public class TopicTally {
+
+    // Holds counts restored from a checkpoint; never written by the listener
+    private static final int RESTORED_SHARD = -1;
+
+    private final Map<Integer, PartitionShard> shards = new ConcurrentHashMap<>();
+
+    public void increment(int partition, String candidate) {
+        shard(partition).add(candidate, 1);
+    }
+
+    public void restore(String candidate, long count) {
+        shard(RESTORED_SHARD).add(candidate, count);
+    }
+
+    public long getTotal() {
+        long total = 0;
+        for (PartitionShard shard : shards.values()) {
+            total += shard.total();
+        }
+        return total;
+    }
+
+    /**
+     * Merges the shards into one candidate -&gt; count map
+     */
+    public Map<String, Long> getCounts() {
+        Map<String, Long> merged = new HashMap<>();
+        for (PartitionShard shard : shards.values()) {
+            shard.mergeInto(merged);
+        }
+        return merged;
+    }
+
+    private PartitionShard shard(int partition) {
+        PartitionShard shard = shards.get(partition);
+        if (shard == null) {
+            shard = shards.computeIfAbsent(partition, k -> new PartitionShard());
+        }
+        return shard;
+    }
+
+    /**
+     * Counts for one partition. Candidates get a slot on first sight; the slot
+     * arrays only grow, and size is published last so readers never see a
+     * slot before its candidate.
+     */
+    private static final class PartitionShard {
+
+        private final Map<String, Integer> slots = new HashMap<>();
+        private volatile String[] candidates = new String[8];
+        private volatile AtomicLongArray counts = new AtomicLongArray(8);
+        private volatile int size;
+
+        private void add(String candidate, long count) {
+            Integer slot = slots.get(candidate);
+            if (slot == null) {
+                slot = newSlot(candidate);
+            }
+            AtomicLongArray current = counts;
+            current.setRelease(slot, current.getPlain(slot) + count);
+        }
+
+        private int newSlot(String candidate) {
+            int slot = size;
+            if (slot == candidates.length) {
+                String[] grownCandidates = new String[slot * 2];
+                AtomicLongArray grownCounts = new AtomicLongArray(slot * 2);
+                for (int i = 0; i < slot; i++) {
+                    grownCandidates[i] = candidates[i];
+                    grownCounts.setPlain(i, counts.getPlain(i));
+                }
+                candidates = grownCandidates;
+                counts = grownCounts;
+            }
+            candidates[slot] = candidate;
+            slots.put(candidate, slot);
+            size = slot + 1;
+            return slot;
+        }
+
+        private long total() {
+            int n = size;
+            AtomicLongArray current = counts;
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                total += current.getAcquire(i);
+            }
+            return total;
+        }
+
+        private void mergeInto(Map<String, Long> merged) {
+            int n = size;
+            String[] names = candidates;
+            AtomicLongArray current = counts;
+            for (int i = 0; i < n; i++) {
+                merged.merge(names[i], current.getAcquire(i), Long::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.project.subscriber.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What changed in one poll since the last update pushed to a subscriber:
+ * the change in each candidate's count and the new votes, oldest first.
+ * A snapshot carries the full counts instead of deltas, and is sent the
+ * first time a subscriber hears about a poll or when it asks for one.
+ *
+ * Deltas take the poll from baseVotes to totalVotes votes read, so a
+ * subscriber can tell a replayed update (totalVotes not past what it has)
+ * from a gap (baseVotes past what it has) and ask for a snapshot instead.
+ *
+ * votesDropped counts votes left out because the subscriber's queue was
+ * full; they are still included in the counts.
+ */
+public class TopicUpdate {
+
+    private String topic;
+    private boolean snapshot;
+    private long baseVotes;
+    private long totalVotes;
+    private Map<String, Long> deltas = new HashMap<>();
+    private List<String> votes = new ArrayList<>();
+    private long votesDropped;
+
+    public TopicUpdate() {
+    }
+
+    public TopicUpdate(String topic, boolean snapshot, long baseVotes, long totalVotes,
+                       Map<String, Long> deltas, List<String> votes) {
+        this.topic = topic;
+        this.snapshot = snapshot;
+        this.baseVotes = baseVotes;
+        this.totalVotes = totalVotes;
+        this.deltas = deltas;
+        this.votes = votes;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(boolean snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public long getBaseVotes() {
+        return baseVotes;
+    }
+
+    public void setBaseVotes(long baseVotes) {
+        this.baseVotes = baseVotes;
+    }
+
+    public long getTotalVotes() {
+        return totalVotes;
+    }
+
+    public void setTotalVotes(long totalVotes) {
+        this.totalVotes = totalVotes;
+    }
+
+    public Map<String, Long> getDeltas() {
+        return deltas;
+    }
+
+    public void setDeltas(Map<String, Long> deltas) {
+        this.deltas = deltas;
+    }
+
+    public List<String> getVotes() {
+        return votes;
+    }
+
+    public void setVotes(List<String> votes) {
+        this.votes = votes;
+    }
+
+    public long getVotesDropped() {
+        return votesDropped;
+    }
+
+    public void setVotesDropped(long votesDropped) {
+        this.votesDropped = votesDropped;
+    }
+}
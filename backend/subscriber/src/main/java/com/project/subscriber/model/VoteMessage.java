@@ -0,0 +1,98 @@
+package com.project.subscriber.model;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+/**
+ * A vote as read from Kafka, with the position it was read from.
+ *
+ * Binary votes keep their candidate and voter; plain string votes keep
+ * the original text in {@code value}.
+ */
+public class VoteMessage {
+
+    private int partition;
+    private long offset;
+    private long timestamp;
+    private String value;
+    private String candidate;
+    private String voterId;
+
+    public VoteMessage() {
+    }
+
+    public VoteMessage(int partition, long offset, long timestamp, VoteRecord record) {
+        this.partition = partition;
+        this.offset = offset;
+        this.timestamp = timestamp;
+        if (record.isText()) {
+            this.value = record.getText();
+        } else {
+            this.candidate = record.getCandidate();
+            this.voterId = record.getVoterId();
+        }
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public String getCandidate() {
+        return candidate;
+    }
+
+    public void setCandidate(String candidate) {
+        this.candidate = candidate;
+    }
+
+    public String getVoterId() {
+        return voterId;
+    }
+
+    public void setVoterId(String voterId) {
+        this.voterId = voterId;
+    }
+
+    /**
+     * The vote in the string form the message APIs have always returned:
+     * the original text, or {"name": voter, "vote": candidate} for binary votes
+     */
+    public String text() {
+        if (value != null || candidate == null) {
+            return value;
+        }
+        if (voterId == null) {
+            return candidate;
+        }
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        return "{\"name\":\"" + new String(encoder.quoteAsString(voterId))
+                + "\",\"vote\":\"" + new String(encoder.quoteAsString(candidate)) + "\"}";
+    }
+}
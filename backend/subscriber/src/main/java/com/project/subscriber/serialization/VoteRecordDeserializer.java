@@ -0,0 +1,26 @@
+package com.project.subscriber.serialization;
+
+import com.project.subscriber.model.VoteRecord;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Kafka value deserializer for votes in the {@link VoteRecordCodec} layout.
+ * Plain string votes are still accepted and come back as text records.
+ */
+public class VoteRecordDeserializer implements Deserializer<VoteRecord> {
+
+    private final VoteRecordCodec codec = new VoteRecordCodec();
+
+    @Override
+    public VoteRecord deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (VoteRecordCodec.isBinary(data)) {
+            return codec.decode(data);
+        }
+        return VoteRecord.ofText(new String(data, StandardCharsets.UTF_8));
+    }
+}
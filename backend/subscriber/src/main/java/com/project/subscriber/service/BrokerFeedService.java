@@ -0,0 +1,102 @@
+package com.project.subscriber.service;
+
+import com.project.subscriber.model.PollResults;
+import com.project.subscriber.model.TopicUpdate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Poll state as pushed by the leader broker to /api/push: counts kept from
+ * snapshots plus the deltas that follow them, and the most recent pushed
+ * votes. This is the broker's view of each poll, kept apart from the
+ * tallies this subscriber builds from Kafka itself.
+ *
+ * A delta only applies if it starts where the poll's counts are, so
+ * retried pushes are never counted twice. One that was already applied is
+ * skipped; any other mismatch (a gap, a partial overlap, or a poll with no
+ * snapshot yet) leaves the counts alone and asks the broker for a snapshot.
+ */
+@Service
+public class BrokerFeedService {
+
+    private final int recentVotes;
+    private final Map<String, FeedTopic> topics = new ConcurrentHashMap<>();
+
+    public BrokerFeedService(@Value("${subscriber.push.recent-votes:1000}") int recentVotes) {
+        this.recentVotes = recentVotes;
+    }
+
+    /**
+     * @return false if the poll needs a snapshot before this update can apply
+     */
+    public boolean apply(TopicUpdate update) {
+        return topics.computeIfAbsent(update.getTopic(), k -> new FeedTopic()).apply(update);
+    }
+
+    public void remove(String topic) {
+        topics.remove(topic);
+    }
+
+    public PollResults getResults(String topic) {
+        FeedTopic feed = topics.get(topic);
+        return feed == null ? new PollResults(topic, 0, Map.of()) : feed.getResults(topic);
+    }
+
+    /**
+     * The most recent pushed votes, oldest first
+     */
+    public List<String> getRecentVotes(String topic) {
+        FeedTopic feed = topics.get(topic);
+        return feed == null ? new ArrayList<>() : feed.getRecentVotes();
+    }
+
+    private class FeedTopic {
+
+        private final Map<String, Long> counts = new HashMap<>();
+        private final ArrayDeque<String> recent = new ArrayDeque<>();
+        private long totalVotes;
+        private boolean synced;
+
+        private synchronized boolean apply(TopicUpdate update) {
+            if (update.isSnapshot()) {
+                counts.clear();
+                synced = true;
+            } else if (synced && update.getTotalVotes() <= totalVotes) {
+                // Replayed by a retry after it had already arrived
+                return true;
+            } else if (!synced || update.getBaseVotes() != totalVotes) {
+                return false;
+            }
+            update.getDeltas().forEach((candidate, delta) -> {
+                if (counts.merge(candidate, delta, Long::sum) == 0) {
+                    counts.remove(candidate);
+                }
+            });
+            totalVotes = update.getTotalVotes();
+            for (String vote : update.getVotes()) {
+                if (recent.size() == recentVotes) {
+                    recent.pollFirst();
+                }
+                if (recentVotes > 0) {
+                    recent.addLast(vote);
+                }
+            }
+            return true;
+        }
+
+        private synchronized PollResults getResults(String topic) {
+            return new PollResults(topic, totalVotes, new HashMap<>(counts));
+        }
+
+        private synchronized List<String> getRecentVotes() {
+            return new ArrayList<>(recent);
+        }
+    }
+}
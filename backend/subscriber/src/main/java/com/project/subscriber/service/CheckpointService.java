@@ -0,0 +1,246 @@
+package com.project.subscriber.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.subscriber.model.Checkpoint;
+import com.project.subscriber.model.TopicCheckpoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Periodically saves the subscriber's per-topic state together with the
+ * offsets it was built from, and restores the newest saved state on boot so
+ * the listener only has to read what arrived after it.
+ *
+ * The applied offsets double as a high-water mark: records below them are
+ * already part of the state and are skipped if Kafka delivers them again.
+ */
+@Service
+public class CheckpointService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointService.class);
+    private static final String FILE_PREFIX = "checkpoint-";
+    private static final String FILE_SUFFIX = ".json";
+
+    private final TallyService tallyService;
+    private final MessageStoreService messageStoreService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<TopicPartition, Long> appliedOffsets = new ConcurrentHashMap<>();
+    private final Map<String, TopicCheckpoint> parkedTopics = new ConcurrentHashMap<>();
+    // Listener batches hold the read lock; checkpoints and full reloads hold the write lock
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+
+    @Value("${subscriber.checkpoint.enabled:true}")
+    private boolean enabled;
+
+    @Value("${subscriber.checkpoint.dir:data/subscriber}")
+    private String checkpointDir;
+
+    @Value("${subscriber.checkpoint.retain:2}")
+    private int retain;
+
+    public CheckpointService(TallyService tallyService, MessageStoreService messageStoreService) {
+        this.tallyService = tallyService;
+        this.messageStoreService = messageStoreService;
+    }
+
+    @PostConstruct
+    public void restore() {
+        if (!enabled) {
+            return;
+        }
+        for (Path file : checkpointFiles()) {
+            try {
+                Checkpoint checkpoint = objectMapper.readValue(file.toFile(), Checkpoint.class);
+                checkpoint.getTopics().forEach((topic, state) -> {
+                    tallyService.restore(topic, state.getCounts());
+                    messageStoreService.replaceAll(topic, state.getMessages());
+                    state.getNextOffsets().forEach((partition, offset) ->
+                            appliedOffsets.put(new TopicPartition(topic, partition), offset));
+                });
+                parkedTopics.putAll(checkpoint.getParkedTopics());
+                logger.info("Restored {} topics from checkpoint {}", checkpoint.getTopics().size(), file);
+                return;
+            } catch (IOException e) {
+                logger.warn("Skipping unreadable checkpoint {}", file, e);
+            }
+        }
+        logger.info("No checkpoint found in {}, starting from the beginning of each topic", checkpointDir);
+    }
+
+    public ReadWriteLock getStateLock() {
+        return stateLock;
+    }
+
+    /**
+     * Next offset to apply for a partition, or -1 if nothing has been applied yet
+     */
+    public long nextOffset(String topic, int partition) {
+        return appliedOffsets.getOrDefault(new TopicPartition(topic, partition), -1L);
+    }
+
+    public void markApplied(String topic, int partition, long nextOffset) {
+        appliedOffsets.merge(new TopicPartition(topic, partition), nextOffset, Math::max);
+    }
+
+    /**
+     * Frees the in-memory state of a topic that is no longer followed, keeping
+     * only its counts and offsets so a later subscribe can resume from them
+     */
+    public void park(String topic) {
+        stateLock.writeLock().lock();
+        try {
+            TopicCheckpoint state = new TopicCheckpoint();
+            state.setCounts(tallyService.getResults(topic).getCounts());
+            appliedOffsets.entrySet().removeIf(entry -> {
+                if (entry.getKey().topic().equals(topic)) {
+                    state.getNextOffsets().put(entry.getKey().partition(), entry.getValue());
+                    return true;
+                }
+                return false;
+            });
+            if (!state.getNextOffsets().isEmpty()) {
+                parkedTopics.put(topic, state);
+            }
+            tallyService.remove(topic);
+            messageStoreService.remove(topic);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Brings back the counts and offsets of a previously parked topic
+     */
+    public void unpark(String topic) {
+        stateLock.writeLock().lock();
+        try {
+            TopicCheckpoint state = parkedTopics.remove(topic);
+            if (state != null) {
+                tallyService.restore(topic, state.getCounts());
+                state.getNextOffsets().forEach((partition, offset) ->
+                        appliedOffsets.put(new TopicPartition(topic, partition), offset));
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+    }
+
+    public Set<String> getRestoredTopics() {
+        Set<String> topics = new HashSet<>();
+        appliedOffsets.keySet().forEach(partition -> topics.add(partition.topic()));
+        return topics;
+    }
+
+    @Scheduled(fixedDelayString = "${subscriber.checkpoint.interval-ms:30000}",
+               initialDelayString = "${subscriber.checkpoint.interval-ms:30000}")
+    public void checkpoint() {
+        if (!enabled) {
+            return;
+        }
+        Checkpoint checkpoint = capture();
+        try {
+            write(checkpoint);
+        } catch (IOException e) {
+            logger.error("Error writing checkpoint to {}", checkpointDir, e);
+        }
+    }
+
+    @PreDestroy
+    public void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    /**
+     * Copies state and offsets while no batch is being applied, so the two agree
+     */
+    private Checkpoint capture() {
+        Checkpoint checkpoint = new Checkpoint();
+        stateLock.writeLock().lock();
+        try {
+            checkpoint.setCreatedAt(System.currentTimeMillis());
+            Map<String, Map<Integer, Long>> offsetsByTopic = new HashMap<>();
+            appliedOffsets.forEach((partition, offset) ->
+                    offsetsByTopic.computeIfAbsent(partition.topic(), k -> new HashMap<>()).put(partition.partition(), offset));
+            offsetsByTopic.forEach((topic, offsets) -> {
+                TopicCheckpoint state = new TopicCheckpoint();
+                state.setNextOffsets(offsets);
+                state.setCounts(tallyService.getResults(topic).getCounts());
+                state.setMessages(messageStoreService.messages(topic));
+                checkpoint.getTopics().put(topic, state);
+            });
+            checkpoint.getParkedTopics().putAll(parkedTopics);
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        return checkpoint;
+    }
+
+    private void write(Checkpoint checkpoint) throws IOException {
+        Path dir = Paths.get(checkpointDir);
+        Files.createDirectories(dir);
+        Path target = dir.resolve(FILE_PREFIX + checkpoint.getCreatedAt() + FILE_SUFFIX);
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), checkpoint);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Wrote checkpoint {} covering {} topics", target, checkpoint.getTopics().size());
+
+        List<Path> files = checkpointFiles();
+        for (Path old : files.subList(Math.min(retain, files.size()), files.size())) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    /**
+     * Checkpoint files, newest first
+     */
+    private List<Path> checkpointFiles() {
+        Path dir = Paths.get(checkpointDir);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(CheckpointService::createdAt).reversed())
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.error("Error listing checkpoints in {}", checkpointDir, e);
+            return List.of();
+        }
+    }
+
+    private static long createdAt(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
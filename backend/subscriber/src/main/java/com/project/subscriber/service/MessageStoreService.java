@@ -0,0 +1,149 @@
+package com.project.subscriber.service;
+
+import com.project.subscriber.config.RetentionProperties;
+import com.project.subscriber.model.MessagePage;
+import com.project.subscriber.model.TopicLog;
+import com.project.subscriber.model.VoteMessage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the raw vote history of every topic and keeps it within the limits
+ * configured in {@link RetentionProperties}.
+ */
+@Service
+public class MessageStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageStoreService.class);
+
+    private final RetentionProperties retention;
+    private final Map<String, TopicLog> topicLogs = new ConcurrentHashMap<>();
+
+    public MessageStoreService(RetentionProperties retention, MeterRegistry meterRegistry) {
+        this.retention = retention;
+        Gauge.builder("subscriber.retention.bytes", this, MessageStoreService::totalBytes)
+                .description("Estimated heap used by retained vote history")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public void ensureTopic(String topic) {
+        logFor(topic);
+    }
+
+    public void append(String topic, List<VoteMessage> messages) {
+        logFor(topic).append(messages);
+    }
+
+    public void replaceAll(String topic, List<VoteMessage> messages) {
+        logFor(topic).replaceAll(messages);
+    }
+
+    public void remove(String topic) {
+        topicLogs.remove(topic);
+    }
+
+    public List<String> values(String topic) {
+        TopicLog topicLog = topicLogs.get(topic);
+        if (topicLog == null) {
+            return new ArrayList<>();
+        }
+        topicLog.touch();
+        return topicLog.values();
+    }
+
+    public List<VoteMessage> messages(String topic) {
+        TopicLog topicLog = topicLogs.get(topic);
+        return topicLog == null ? new ArrayList<>() : topicLog.messages();
+    }
+
+    public Map<String, List<String>> allValues() {
+        Map<String, List<String>> values = new HashMap<>();
+        topicLogs.forEach((topic, topicLog) -> values.put(topic, topicLog.values()));
+        return values;
+    }
+
+    public MessagePage page(String topic, int partition, long after, int limit) {
+        TopicLog topicLog = topicLogs.get(topic);
+        if (topicLog == null) {
+            return new MessagePage(topic, partition, new ArrayList<>(), after, false);
+        }
+        topicLog.touch();
+        return topicLog.page(topic, partition, after, limit);
+    }
+
+    /**
+     * Per-topic retained history, for sizing subscriber instances
+     */
+    public Map<String, Map<String, Object>> memoryUsage() {
+        Map<String, Map<String, Object>> usage = new LinkedHashMap<>();
+        topicLogs.forEach((topic, topicLog) -> {
+            Map<String, Object> topicUsage = new LinkedHashMap<>();
+            topicUsage.put("mode", retention.policyFor(topic).getMode());
+            topicUsage.put("retainedMessages", topicLog.size());
+            topicUsage.put("estimatedBytes", topicLog.estimatedBytes());
+            topicUsage.put("evictedMessages", topicLog.evictedCount());
+            topicUsage.put("lastViewed", topicLog.getLastViewed());
+            usage.put(topic, topicUsage);
+        });
+        return usage;
+    }
+
+    public long totalBytes() {
+        long total = 0;
+        for (TopicLog topicLog : topicLogs.values()) {
+            total += topicLog.estimatedBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Drops the history of the least recently viewed topics until the
+     * estimated total fits in the heap budget again
+     */
+    @Scheduled(fixedDelayString = "${subscriber.retention.check-ms:1000}")
+    public void enforceHeapBudget() {
+        long total = totalBytes();
+        long budget = retention.getHeapBudgetBytes();
+        if (total <= budget) {
+            return;
+        }
+        List<Map.Entry<String, TopicLog>> byLastViewed = new ArrayList<>(topicLogs.entrySet());
+        byLastViewed.sort(Comparator.comparingLong(entry -> entry.getValue().getLastViewed()));
+        for (Map.Entry<String, TopicLog> entry : byLastViewed) {
+            if (total <= budget) {
+                break;
+            }
+            long freed = entry.getValue().estimatedBytes();
+            if (freed == 0) {
+                continue;
+            }
+            entry.getValue().clear();
+            total -= freed;
+            logger.info("Evicted history of topic {} ({} bytes) to stay within heap budget of {} bytes",
+                    entry.getKey(), freed, budget);
+        }
+    }
+
+    private TopicLog logFor(String topic) {
+        return topicLogs.computeIfAbsent(topic, k -> {
+            RetentionProperties.Policy policy = retention.policyFor(topic);
+            if (policy.getMode() == RetentionProperties.Mode.AGGREGATES_ONLY) {
+                return new TopicLog(0, 0);
+            }
+            return new TopicLog(policy.getMaxMessages(), policy.getMaxBytes());
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.project.subscriber.service;
+
+import com.project.subscriber.model.RateSeries;
+import com.project.subscriber.model.TopicRates;
+import com.project.subscriber.model.VoteMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buckets votes by their Kafka record timestamp into tumbling windows of
+ * each configured size, so surges and stalls can be read without walking
+ * the raw history. Window history is in-memory only and starts over on restart.
+ */
+@Service
+public class RateService {
+
+    private final long[] windowMillis;
+    private final int buckets;
+    private final Map<String, TopicRates> rates = new ConcurrentHashMap<>();
+
+    public RateService(@Value("${subscriber.timeseries.windows-ms:1000,10000,60000}") long[] windowMillis,
+                       @Value("${subscriber.timeseries.buckets:120}") int buckets) {
+        this.windowMillis = windowMillis;
+        this.buckets = buckets;
+    }
+
+    public void recordAll(String topic, List<VoteMessage> messages, String[] candidates) {
+        rates.computeIfAbsent(topic, k -> new TopicRates(windowMillis, buckets)).recordAll(messages, candidates);
+    }
+
+    /**
+     * Replaces a topic's windows with ones computed from the given messages
+     */
+    public void rebuild(String topic, List<VoteMessage> messages, String[] candidates) {
+        TopicRates topicRates = new TopicRates(windowMillis, buckets);
+        topicRates.recordAll(messages, candidates);
+        rates.put(topic, topicRates);
+    }
+
+    public void remove(String topic) {
+        rates.remove(topic);
+    }
+
+    public boolean supportsWindow(long window) {
+        return indexOf(window) >= 0;
+    }
+
+    public long[] getWindowMillis() {
+        return windowMillis.clone();
+    }
+
+    /**
+     * The latest windows of the given size for a topic; the size must be one
+     * of subscriber.timeseries.windows-ms
+     */
+    public RateSeries getSeries(String topic, long window) {
+        int index = indexOf(window);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unsupported window " + window + "ms, expected one of "
+                    + Arrays.toString(windowMillis));
+        }
+        TopicRates topicRates = rates.get(topic);
+        if (topicRates == null) {
+            topicRates = new TopicRates(windowMillis, buckets);
+        }
+        return topicRates.series(topic, index, System.currentTimeMillis());
+    }
+
+    private int indexOf(long window) {
+        for (int i = 0; i < windowMillis.length; i++) {
+            if (windowMillis[i] == window) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
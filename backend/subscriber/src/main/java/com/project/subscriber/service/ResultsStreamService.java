@@ -0,0 +1,286 @@
+package com.project.subscriber.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.subscriber.model.PollResults;
+import com.project.subscriber.model.TallyDelta;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes tally changes to viewers over server-sent events.
+ *
+ * Topics touched by the Kafka listener are marked dirty; once per tick the
+ * current counts of each dirty topic are diffed against what was last sent
+ * and one delta event is queued to every viewer of that topic. Each viewer
+ * has a bounded queue drained by a shared sender pool, and a viewer whose
+ * queue overflows is disconnected rather than slowing down the others.
+ *
+ * An event is serialized once per tick and shared by its viewers; each
+ * sender builds its own SseEventBuilder from it, since builders are
+ * mutable and change on every build().
+ */
+@Service
+public class ResultsStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultsStreamService.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final StreamEvent HEARTBEAT = new StreamEvent(null, null, "heartbeat");
+
+    private final TallyService tallyService;
+    private final Map<String, Set<ResultsStream>> streams = new ConcurrentHashMap<>();
+    private final Queue<ResultsStream> joining = new ConcurrentLinkedQueue<>();
+    private final Set<String> dirtyTopics = ConcurrentHashMap.newKeySet();
+    // Only touched by tick(); with fixedDelay its runs never overlap, even on virtual threads
+    private final Map<String, Map<String, Long>> lastSent = new HashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService sender;
+    private final int bufferSize;
+    private final int maxConnections;
+    private final long heartbeatMillis;
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    public ResultsStreamService(TallyService tallyService,
+                                @Value("${subscriber.stream.sender-threads:8}") int senderThreads,
+                                @Value("${subscriber.stream.buffer-size:32}") int bufferSize,
+                                @Value("${subscriber.stream.max-connections:10000}") int maxConnections,
+                                @Value("${subscriber.stream.heartbeat-ms:15000}") long heartbeatMillis,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.tallyService = tallyService;
+        // A sender blocked on a slow socket parks instead of holding a platform thread
+        this.sender = virtualThreads
+                ? Executors.newFixedThreadPool(senderThreads, Thread.ofVirtual().name("results-sender-", 0).factory())
+                : Executors.newFixedThreadPool(senderThreads);
+        this.bufferSize = bufferSize;
+        this.maxConnections = maxConnections;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    /**
+     * Opens a stream for a topic. The first event is a full snapshot, sent on
+     * the next tick so it lines up with the deltas that follow it.
+     */
+    public SseEmitter open(String topic) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many results streams");
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        ResultsStream stream = new ResultsStream(topic, emitter);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> remove(stream));
+        emitter.onError(e -> remove(stream));
+        joining.add(stream);
+        return emitter;
+    }
+
+    /**
+     * Called by the Kafka listener after it has applied votes for a topic
+     */
+    public void markChanged(String topic) {
+        dirtyTopics.add(topic);
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @Scheduled(fixedDelayString = "${subscriber.stream.tick-ms:250}")
+    public void tick() {
+        List<ResultsStream> joined = new ArrayList<>();
+        ResultsStream stream;
+        while ((stream = joining.poll()) != null) {
+            joined.add(stream);
+        }
+
+        Set<String> topics = new HashSet<>();
+        for (Iterator<String> it = dirtyTopics.iterator(); it.hasNext(); ) {
+            topics.add(it.next());
+            it.remove();
+        }
+        for (ResultsStream joiner : joined) {
+            topics.add(joiner.topic);
+        }
+
+        for (String topic : topics) {
+            Set<ResultsStream> viewers = streams.get(topic);
+            boolean hasViewers = viewers != null && !viewers.isEmpty();
+            boolean hasJoiners = joined.stream().anyMatch(s -> s.topic.equals(topic));
+            if (!hasViewers && !hasJoiners) {
+                lastSent.remove(topic);
+                continue;
+            }
+
+            PollResults current = tallyService.getResults(topic);
+            Map<String, Long> previous = lastSent.getOrDefault(topic, Map.of());
+            if (hasViewers) {
+                Map<String, Long> deltas = diff(previous, current.getCounts());
+                if (!deltas.isEmpty()) {
+                    StreamEvent event = StreamEvent.of("delta", new TallyDelta(topic, current.getTotalVotes(), deltas));
+                    viewers.forEach(viewer -> viewer.enqueue(event));
+                }
+            }
+            if (hasJoiners) {
+                StreamEvent snapshot = StreamEvent.of("snapshot",
+                        new TallyDelta(topic, current.getTotalVotes(), current.getCounts()));
+                joined.stream().filter(s -> s.topic.equals(topic)).forEach(s -> s.enqueue(snapshot));
+            }
+            lastSent.put(topic, current.getCounts());
+        }
+
+        for (ResultsStream joiner : joined) {
+            if (joiner.open.get()) {
+                streams.computeIfAbsent(joiner.topic, k -> ConcurrentHashMap.newKeySet()).add(joiner);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - lastHeartbeat >= heartbeatMillis) {
+            lastHeartbeat = now;
+            streams.values().forEach(viewers -> viewers.forEach(viewer -> viewer.enqueue(HEARTBEAT)));
+        }
+    }
+
+    private static Map<String, Long> diff(Map<String, Long> previous, Map<String, Long> current) {
+        Map<String, Long> deltas = new HashMap<>();
+        current.forEach((candidate, count) -> {
+            long delta = count - previous.getOrDefault(candidate, 0L);
+            if (delta != 0) {
+                deltas.put(candidate, delta);
+            }
+        });
+        previous.forEach((candidate, count) -> {
+            if (!current.containsKey(candidate)) {
+                deltas.put(candidate, -count);
+            }
+        });
+        return deltas;
+    }
+
+    private void remove(ResultsStream stream) {
+        if (stream.open.compareAndSet(true, false)) {
+            connectionCount.decrementAndGet();
+            Set<ResultsStream> viewers = streams.get(stream.topic);
+            if (viewers != null) {
+                viewers.remove(stream);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        streams.values().forEach(viewers -> viewers.forEach(viewer -> viewer.emitter.complete()));
+    }
+
+    private class ResultsStream {
+
+        private final String topic;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicBoolean open = new AtomicBoolean(true);
+
+        private ResultsStream(String topic, SseEmitter emitter) {
+            this.topic = topic;
+            this.emitter = emitter;
+        }
+
+        private void enqueue(StreamEvent event) {
+            if (!open.get()) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                logger.info("Dropping slow results stream for topic {}", topic);
+                remove(this);
+                emitter.complete();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                StreamEvent event;
+                while (open.get() && (event = buffer.poll()) != null) {
+                    emitter.send(event.toBuilder());
+                }
+            } catch (Exception e) {
+                remove(this);
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+                if (open.get() && !buffer.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+    }
+
+    /**
+     * An event as queued to viewers: its name and already serialized data,
+     * or a comment. Immutable, so one instance can go to every viewer.
+     */
+    private static final class StreamEvent {
+
+        private final String name;
+        private final String data;
+        private final String comment;
+
+        private StreamEvent(String name, String data, String comment) {
+            this.name = name;
+            this.data = data;
+            this.comment = comment;
+        }
+
+        private static StreamEvent of(String name, Object data) {
+            try {
+                return new StreamEvent(name, objectMapper.writeValueAsString(data), null);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize " + name + " event", e);
+            }
+        }
+
+        private SseEmitter.SseEventBuilder toBuilder() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (comment != null) {
+                builder.comment(comment);
+            }
+            if (name != null) {
+                builder.name(name).data(data, MediaType.APPLICATION_JSON);
+            }
+            return builder;
+        }
+    }
+}
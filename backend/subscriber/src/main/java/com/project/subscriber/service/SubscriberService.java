@@ -1,43 +1,66 @@
 package com.project.subscriber.service;
 
+import com.project.subscriber.model.MessagePage;
+import com.project.subscriber.model.PollResults;
+import com.project.subscriber.model.RateSeries;
+import com.project.subscriber.model.TopicUpdate;
+import com.project.subscriber.model.VoteMessage;
+import com.project.subscriber.model.VoteRecord;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.client.RestTemplate;
-import org.apache.kafka.clients.admin.AdminClient;
-import org.apache.kafka.clients.admin.ListTopicsResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
-import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.TopicPartitionOffset;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.apache.kafka.clients.consumer.ConsumerConfig;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
-import org.apache.kafka.common.TopicPartition;
-import org.apache.kafka.common.serialization.StringDeserializer;
-import java.time.Duration;
-import java.util.Collections;
-import java.util.Properties;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Follows the topics this subscriber was asked for. Each subscribed topic gets
+ * its own listener container, manually assigned to the topic's partitions, so
+ * Kafka only fetches topics that are actually being shown.
+ */
 @Service
 public class SubscriberService {
 
     private static final Logger logger = LoggerFactory.getLogger(SubscriberService.class);
 
     private final RestTemplate restTemplate;
-    private final AdminClient adminClient;
-    private final KafkaListenerEndpointRegistry kafkaListenerRegistry;
+    private final TopicMetadataCache topicMetadataCache;
+    private final ConcurrentKafkaListenerContainerFactory<String, VoteRecord> containerFactory;
+    private final TallyService tallyService;
+    private final MessageStoreService messageStoreService;
+    private final CheckpointService checkpointService;
+    private final TopicReader topicReader;
+    private final ResultsStreamService resultsStreamService;
+    private final RateService rateService;
+    private final BrokerFeedService brokerFeedService;
+    private final DistributionSummary batchSize;
+    private final Timer batchProcessingTime;
 
     @Value("${coordinator.url}")
     private String coordinatorUrl;
@@ -46,26 +69,58 @@ public class SubscriberService {
     private int port;
 
     private String leaderBroker;
-    private List<String> subscribedTopics = new ArrayList<>();
-    private Map<String, List<String>> topicMessages = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<String> subscribedTopics = new CopyOnWriteArrayList<>();
+    private final Map<String, ConcurrentMessageListenerContainer<String, VoteRecord>> topicContainers = new ConcurrentHashMap<>();
+    // Held across Kafka admin calls and container start/stop, so a lock rather than a monitor
+    // that would pin a virtual thread to its carrier while it waits
+    private final ReentrantLock containerLock = new ReentrantLock();
     private long logicalClock = 0;
 
     public SubscriberService(RestTemplate restTemplate, 
-                            AdminClient adminClient,
-                            KafkaListenerEndpointRegistry kafkaListenerRegistry) {
+                            TopicMetadataCache topicMetadataCache,
+                            ConcurrentKafkaListenerContainerFactory<String, VoteRecord> containerFactory,
+                            TallyService tallyService,
+                            MessageStoreService messageStoreService,
+                            CheckpointService checkpointService,
+                            TopicReader topicReader,
+                            ResultsStreamService resultsStreamService,
+                            RateService rateService,
+                            BrokerFeedService brokerFeedService,
+                            MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
-        this.adminClient = adminClient;
-        this.kafkaListenerRegistry = kafkaListenerRegistry;
+        this.topicMetadataCache = topicMetadataCache;
+        this.containerFactory = containerFactory;
+        this.tallyService = tallyService;
+        this.messageStoreService = messageStoreService;
+        this.checkpointService = checkpointService;
+        this.topicReader = topicReader;
+        this.resultsStreamService = resultsStreamService;
+        this.rateService = rateService;
+        this.brokerFeedService = brokerFeedService;
+        this.batchSize = DistributionSummary.builder("subscriber.listener.batch.size")
+                .description("Records delivered per Kafka poll")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchProcessingTime = Timer.builder("subscriber.listener.batch.processing")
+                .description("Time spent applying one Kafka poll to in-memory state")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
     }
 
     @PostConstruct
     public void init() {
         updateLeaderBroker();
-        // Initialize the Kafka listener
-        logger.info("Initializing Kafka listener for all topics");
+        // Topics restored from a checkpoint were being followed before the restart
+        checkpointService.getRestoredTopics().forEach(subscribedTopics::addIfAbsent);
     }
 
-    @Scheduled(fixedRate = 5000)
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRestoredTopics() {
+        logger.info("Starting Kafka listeners for restored topics: {}", subscribedTopics);
+        subscribedTopics.forEach(this::startConsuming);
+    }
+
+    @Scheduled(fixedDelay = 5000)
     public void updateLeaderBroker() {
         incrementClock();
         try {
@@ -76,76 +131,215 @@ public class SubscriberService {
         }
     }
 
-    // Listen to all topics
-    @KafkaListener(id = "all-topics-listener", topicPattern = ".*")
-    public void listen(ConsumerRecord<String, String> record) {
-        String topic = record.topic();
-        String message = record.value();
-        
-        // Skip internal Kafka topics
-        if (topic.startsWith("__")) {
+    /**
+     * Renews this subscriber's lease on the leader broker and registers all
+     * of its topics there in one bulk call. The broker drops the
+     * subscriptions of a subscriber that stops renewing once its lease runs out.
+     */
+    @Scheduled(fixedDelayString = "${subscriber.lease.renew-interval-ms:10000}")
+    public void renewBrokerLease() {
+        incrementClock();
+        String broker = leaderBroker;
+        if (broker == null) {
             return;
         }
-        
-        logger.info("Received message from topic {}: {}", topic, message);
-        logger.info("Message details - Partition: {}, Offset: {}, Timestamp: {}", 
-                   record.partition(), record.offset(), record.timestamp());
-        
-        // Store the message even if we haven't explicitly subscribed
-        // This ensures we capture all messages
-        topicMessages.computeIfAbsent(topic, k -> new ArrayList<>()).add(message);
-        
-        // If we receive a message for a topic we're not subscribed to,
-        // automatically add it to our subscribed topics
-        if (!subscribedTopics.contains(topic)) {
-            subscribedTopics.add(topic);
-            logger.info("Auto-subscribed to topic: {}", topic);
+        try {
+            restTemplate.postForObject(broker + "/api/leases?timestamp=" + logicalClock, List.of(selfUrl()), String.class);
+            if (!subscribedTopics.isEmpty()) {
+                registerWithBroker(broker, new ArrayList<>(subscribedTopics));
+            }
+        } catch (Exception e) {
+            logger.warn("Could not renew lease with broker {}: {}", broker, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void releaseBrokerLease() {
+        String broker = leaderBroker;
+        if (broker == null) {
+            return;
+        }
+        try {
+            restTemplate.postForObject(broker + "/api/leases/release?subscriberUrl=" + selfUrl()
+                    + "&timestamp=" + logicalClock, null, Void.class);
+        } catch (Exception e) {
+            logger.warn("Could not release lease with broker {}: {}", broker, e.getMessage());
+        }
+    }
+
+    private void registerWithBroker(String broker, List<String> topics) {
+        restTemplate.postForObject(broker + "/api/subscriptions?subscriberUrl=" + selfUrl()
+                + "&timestamp=" + logicalClock, topics, Void.class);
+    }
+
+    private String selfUrl() {
+        return "http://localhost:" + port;
+    }
+
+    // Each call receives everything one poll returned for a subscribed topic
+    public void listen(List<ConsumerRecord<String, VoteRecord>> records) {
+        long start = System.nanoTime();
+
+        Map<String, List<VoteMessage>> messagesByTopic = new HashMap<>();
+        checkpointService.getStateLock().readLock().lock();
+        try {
+            // Group the batch by topic so per-topic state is looked up once per poll,
+            // skipping records that are already part of restored or reloaded state
+            for (ConsumerRecord<String, VoteRecord> record : records) {
+                String topic = record.topic();
+                if (record.offset() < checkpointService.nextOffset(topic, record.partition())) {
+                    continue;
+                }
+                messagesByTopic.computeIfAbsent(topic, k -> new ArrayList<>()).add(toVoteMessage(record));
+            }
+
+            messagesByTopic.forEach((topic, messages) -> {
+                messageStoreService.append(topic, messages);
+                tallyService.recordAll(topic, messages);
+                markApplied(topic, messages);
+                resultsStreamService.markChanged(topic);
+            });
+        } finally {
+            checkpointService.getStateLock().readLock().unlock();
         }
+
+        batchSize.record(records.size());
+        batchProcessingTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logger.debug("Applied batch of {} records across topics {}", records.size(), messagesByTopic.keySet());
     }
 
     public void subscribeTopic(String topic) {
         incrementClock();
-        if (!subscribedTopics.contains(topic)) {
-            subscribedTopics.add(topic);
-            // Initialize the message list for this topic if it doesn't exist
-            topicMessages.putIfAbsent(topic, new ArrayList<>());
+        if (subscribedTopics.addIfAbsent(topic)) {
+            // Pick up where a previous subscription left off, then resume fetching from there
+            checkpointService.unpark(topic);
+            messageStoreService.ensureTopic(topic);
+            startConsuming(topic);
+            String broker = leaderBroker;
+            if (broker != null) {
+                try {
+                    registerWithBroker(broker, List.of(topic));
+                } catch (Exception e) {
+                    // Registered with the next lease renewal
+                    logger.warn("Could not register topic {} with broker {}: {}", topic, broker, e.getMessage());
+                }
+            }
             logger.info("Subscribed to topic: {}", topic);
         }
     }
 
     public void unsubscribeTopic(String topic) {
         incrementClock();
-        subscribedTopics.remove(topic);
-        logger.info("Unsubscribed from topic: {}", topic);
+        if (subscribedTopics.remove(topic)) {
+            stopConsuming(topic);
+            checkpointService.park(topic);
+            brokerFeedService.remove(topic);
+            String broker = leaderBroker;
+            if (broker != null) {
+                try {
+                    restTemplate.postForObject(broker + "/api/subscriptions/remove?subscriberUrl=" + selfUrl()
+                            + "&timestamp=" + logicalClock, List.of(topic), Void.class);
+                } catch (Exception e) {
+                    logger.warn("Could not unregister topic {} with broker {}: {}", topic, broker, e.getMessage());
+                }
+            }
+            logger.info("Unsubscribed from topic: {}", topic);
+        }
+    }
+
+    /**
+     * Starts a listener container assigned to every partition of the topic,
+     * positioned after the last applied offset or at the beginning
+     */
+    private void startConsuming(String topic) {
+        containerLock.lock();
+        try {
+            if (topicContainers.containsKey(topic) || !subscribedTopics.contains(topic)) {
+                return;
+            }
+            int partitionCount;
+            try {
+                partitionCount = topicMetadataCache.getPartitionCount(topic);
+            } catch (IllegalStateException e) {
+                logger.warn("Cannot start listener for topic {} yet: {}", topic, e.getMessage());
+                return;
+            }
+            if (partitionCount < 0) {
+                // The topic does not exist yet; syncTopics retries
+                logger.info("Topic {} does not exist yet, listener will start once it does", topic);
+                return;
+            }
+            TopicPartitionOffset[] partitions = new TopicPartitionOffset[partitionCount];
+            for (int partition = 0; partition < partitionCount; partition++) {
+                long nextOffset = checkpointService.nextOffset(topic, partition);
+                partitions[partition] = nextOffset >= 0
+                        ? new TopicPartitionOffset(topic, partition, nextOffset)
+                        : new TopicPartitionOffset(topic, partition, TopicPartitionOffset.SeekPosition.BEGINNING);
+            }
+
+            ConcurrentMessageListenerContainer<String, VoteRecord> container = containerFactory.createContainer(partitions);
+            container.setBeanName("topic-" + topic);
+            // No point in more consumer threads than partitions
+            container.setConcurrency(Math.min(container.getConcurrency(), partitions.length));
+            container.setupMessageListener((BatchMessageListener<String, VoteRecord>) this::listen);
+            container.start();
+            topicContainers.put(topic, container);
+            logger.info("Started listener for topic {} on {} partitions", topic, partitions.length);
+        } finally {
+            containerLock.unlock();
+        }
     }
 
-    @Scheduled(fixedRate = 5000)
+    /**
+     * Stops the topic's listener container; returns once no batch is being applied
+     */
+    private void stopConsuming(String topic) {
+        containerLock.lock();
+        try {
+            ConcurrentMessageListenerContainer<String, VoteRecord> container = topicContainers.remove(topic);
+            if (container != null) {
+                container.stop();
+                logger.info("Stopped listener for topic {}", topic);
+            }
+        } finally {
+            containerLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelay = 5000)
     public void syncTopics() {
         incrementClock();
         try {
-            ListTopicsResult listTopicsResult = adminClient.listTopics();
-            Set<String> kafkaTopics = listTopicsResult.names().get();
-            // Remove internal Kafka topics
-            kafkaTopics.removeIf(topic -> topic.startsWith("__"));
-            logger.info("Available Kafka topics: {}", kafkaTopics);
+            Set<String> kafkaTopics = topicMetadataCache.getTopicNames();
+            logger.debug("Available Kafka topics: {}", kafkaTopics);
+            // Start listeners for subscriptions made before their topic existed
+            subscribedTopics.stream()
+                    .filter(topic -> kafkaTopics.contains(topic) && !topicContainers.containsKey(topic))
+                    .forEach(this::startConsuming);
+            reassignGrownTopics();
         } catch (Exception e) {
-            logger.error("Error getting Kafka topics", e);
+            logger.error("Error syncing Kafka topics", e);
         }
     }
 
+    /**
+     * Restarts the listener of any topic that gained partitions since it was
+     * assigned; existing partitions resume from their applied offsets
+     */
+    private void reassignGrownTopics() {
+        topicContainers.forEach((topic, container) -> {
+            int partitions = topicMetadataCache.getPartitionCount(topic);
+            if (partitions > container.getContainerProperties().getTopicPartitions().length) {
+                logger.info("Topic {} grew to {} partitions, reassigning its listener", topic, partitions);
+                stopConsuming(topic);
+                startConsuming(topic);
+            }
+        });
+    }
+
     public List<String> getTopics() {
         incrementClock();
-        try {
-            ListTopicsResult topics = adminClient.listTopics();
-            Set<String> kafkaTopics = topics.names().get();
-            // Filter out internal Kafka topics
-            kafkaTopics.removeIf(topic -> topic.startsWith("__"));
-            logger.info("Available Kafka topics: {}", kafkaTopics);
-            return new ArrayList<>(kafkaTopics);
-        } catch (Exception e) {
-            logger.error("Error getting Kafka topics", e);
-            return new ArrayList<>();
-        }
+        return new ArrayList<>(topicMetadataCache.getTopicNames());
     }
 
     public List<String> getSubscribedTopics() {
@@ -155,7 +349,7 @@ public class SubscriberService {
 
     public Map<String, List<String>> getTopicMessages() {
         incrementClock();
-        return topicMessages;
+        return messageStoreService.allValues();
     }
 
     public List<String> getMessagesForTopic(String topic) {
@@ -169,24 +363,21 @@ public class SubscriberService {
             subscribeTopic(topic);
         }
         
-        List<String> messages = topicMessages.getOrDefault(topic, new ArrayList<>());
+        List<String> messages = messageStoreService.values(topic);
         logger.info("Retrieved {} messages for topic: {}", messages.size(), topic);
         
         // Add more detailed logging
-        if (messages.isEmpty()) {
+        // (a topic whose history was evicted still has its votes counted, so only
+        // fall back to Kafka when nothing at all has been received)
+        if (messages.isEmpty() && tallyService.getResults(topic).getTotalVotes() == 0) {
             logger.warn("No messages found for topic: {}. This could indicate a Kafka consumer issue.", topic);
             // Try to check if the topic exists in Kafka
             try {
-                Set<String> topics = adminClient.listTopics().names().get();
-                if (topics.contains(topic)) {
+                if (topicMetadataCache.getPartitionCount(topic) >= 0) {
                     logger.info("Topic {} exists in Kafka but no messages were retrieved", topic);
                     // Try to manually fetch messages
-                    List<String> manuallyFetchedMessages = manuallyFetchMessagesFromKafka(topic);
-                    if (!manuallyFetchedMessages.isEmpty()) {
-                        logger.info("Manually fetched {} messages for topic {}", manuallyFetchedMessages.size(), topic);
-                        // Update our in-memory store
-                        topicMessages.put(topic, manuallyFetchedMessages);
-                        return manuallyFetchedMessages;
+                    if (reloadTopic(topic)) {
+                        return messageStoreService.values(topic);
                     }
                 } else {
                     logger.warn("Topic {} does not exist in Kafka", topic);
@@ -194,7 +385,7 @@ public class SubscriberService {
             } catch (Exception e) {
                 logger.error("Error checking if topic exists in Kafka", e);
             }
-        } else {
+        } else if (!messages.isEmpty()) {
             logger.debug("First message sample: {}", messages.get(0));
             if (messages.size() > 1) {
                 logger.debug("Last message sample: {}", messages.get(messages.size() - 1));
@@ -204,41 +395,158 @@ public class SubscriberService {
         return messages;
     }
     
+    /**
+     * A page of a topic partition's messages with an offset greater than {@code after}
+     */
+    public MessagePage getMessagePage(String topic, int partition, long after, int limit) {
+        incrementClock();
+        if (!subscribedTopics.contains(topic)) {
+            logger.info("Auto-subscribing to topic: {} as it was not in subscribed topics: {}", topic, subscribedTopics);
+            subscribeTopic(topic);
+        }
+        return messageStoreService.page(topic, partition, after, limit);
+    }
+    
+    /**
+     * Current vote counts for a topic, read from the running tally
+     * rather than recomputed from the stored messages
+     */
+    public PollResults getResultsForTopic(String topic) {
+        incrementClock();
+        if (!subscribedTopics.contains(topic)) {
+            logger.info("Auto-subscribing to topic: {} as it was not in subscribed topics: {}", topic, subscribedTopics);
+            subscribeTopic(topic);
+        }
+        return tallyService.getResults(topic);
+    }
+    
+    /**
+     * Applies updates pushed by the leader broker; updates for topics no
+     * longer followed (sent before the broker saw the unsubscribe) are ignored
+     *
+     * @return the topics the broker should send a snapshot of
+     */
+    public List<String> applyBrokerPush(List<TopicUpdate> updates) {
+        List<String> snapshotsNeeded = new ArrayList<>();
+        for (TopicUpdate update : updates) {
+            if (subscribedTopics.contains(update.getTopic()) && !brokerFeedService.apply(update)) {
+                snapshotsNeeded.add(update.getTopic());
+            }
+        }
+        return snapshotsNeeded;
+    }
+
+    /**
+     * Vote counts for a topic as last pushed by the broker
+     */
+    public PollResults getPushedResultsForTopic(String topic) {
+        incrementClock();
+        return brokerFeedService.getResults(topic);
+    }
+
+    public List<String> getPushedMessagesForTopic(String topic) {
+        incrementClock();
+        return brokerFeedService.getRecentVotes(topic);
+    }
+
+    /**
+     * Votes per tumbling window of the given size for a topic, for spotting surges and stalls
+     */
+    public RateSeries getRatesForTopic(String topic, long window) {
+        incrementClock();
+        if (!rateService.supportsWindow(window)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "window must be one of " + Arrays.toString(rateService.getWindowMillis()));
+        }
+        if (!subscribedTopics.contains(topic)) {
+            logger.info("Auto-subscribing to topic: {} as it was not in subscribed topics: {}", topic, subscribedTopics);
+            subscribeTopic(topic);
+        }
+        return rateService.getSeries(topic, window);
+    }
+    
+    /**
+     * Opens a server-sent event stream of tally changes for a topic
+     */
+    public SseEmitter streamResultsForTopic(String topic) {
+        incrementClock();
+        if (!subscribedTopics.contains(topic)) {
+            logger.info("Auto-subscribing to topic: {} for results stream", topic);
+            subscribeTopic(topic);
+        }
+        return resultsStreamService.open(topic);
+    }
+    
     /**
      * Manually fetch messages from Kafka for a specific topic
      * This is a fallback method in case the regular Kafka listener isn't working
      */
-    private List<String> manuallyFetchMessagesFromKafka(String topic) {
-        List<String> messages = new ArrayList<>();
-        Properties props = new Properties();
-        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
-        props.put(ConsumerConfig.GROUP_ID_CONFIG, "manual-fetcher-" + System.currentTimeMillis());
-        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
-        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        
-        try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
-            consumer.subscribe(Collections.singletonList(topic));
-            
-            // Poll for records
-            ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(5000));
-            
-            logger.info("Manually fetched {} records for topic {}", records.count(), topic);
-            
-            records.forEach(record -> {
-                logger.info("Manual fetch - Received message from topic {}: {}", record.topic(), record.value());
-                messages.add(record.value());
-            });
-            
-            // Commit offsets
-            consumer.commitSync();
+    private List<VoteMessage> manuallyFetchMessagesFromKafka(String topic) {
+        List<VoteMessage> messages = new ArrayList<>();
+        try {
+            List<ConsumerRecord<String, VoteRecord>> records = topicReader.readAll(topic);
+            logger.info("Manually fetched {} records for topic {}", records.size(), topic);
+            for (ConsumerRecord<String, VoteRecord> record : records) {
+                messages.add(toVoteMessage(record));
+            }
         } catch (Exception e) {
             logger.error("Error manually fetching messages from Kafka", e);
         }
-        
         return messages;
     }
 
+    /**
+     * Rebuilds a topic's state from a full read of Kafka. The topic's listener
+     * is stopped meanwhile, so the read ends at or after every record already
+     * applied and nothing is applied underneath it; the listener then resumes
+     * after the reloaded offsets. A read that fails or does not finish within
+     * max-read-time leaves the current state alone.
+     */
+    private boolean reloadTopic(String topic) {
+        containerLock.lock();
+        try {
+            stopConsuming(topic);
+            try {
+                List<VoteMessage> messages = manuallyFetchMessagesFromKafka(topic);
+                if (messages.isEmpty()) {
+                    return false;
+                }
+                logger.info("Reloaded {} messages for topic {}", messages.size(), topic);
+                replaceTopicState(topic, messages);
+                return true;
+            } finally {
+                startConsuming(topic);
+            }
+        } finally {
+            containerLock.unlock();
+        }
+    }
+
+    private void replaceTopicState(String topic, List<VoteMessage> messages) {
+        checkpointService.getStateLock().writeLock().lock();
+        try {
+            messageStoreService.replaceAll(topic, messages);
+            tallyService.rebuild(topic, messages);
+            markApplied(topic, messages);
+        } finally {
+            checkpointService.getStateLock().writeLock().unlock();
+        }
+        resultsStreamService.markChanged(topic);
+    }
+
+    private void markApplied(String topic, List<VoteMessage> messages) {
+        Map<Integer, Long> nextOffsets = new HashMap<>();
+        for (VoteMessage message : messages) {
+            nextOffsets.merge(message.getPartition(), message.getOffset() + 1, Math::max);
+        }
+        nextOffsets.forEach((partition, offset) -> checkpointService.markApplied(topic, partition, offset));
+    }
+
+    private static VoteMessage toVoteMessage(ConsumerRecord<String, VoteRecord> record) {
+        VoteRecord vote = record.value() != null ? record.value() : new VoteRecord();
+        return new VoteMessage(record.partition(), record.offset(), record.timestamp(), vote);
+    }
+
     public String getCoordinatorUrl() {
         return coordinatorUrl;
     }
@@ -287,16 +595,10 @@ public class SubscriberService {
         }
         
         // Manually fetch messages from Kafka
-        List<String> refreshedMessages = manuallyFetchMessagesFromKafka(topic);
-        
-        if (!refreshedMessages.isEmpty()) {
-            logger.info("Refreshed {} messages for topic {}", refreshedMessages.size(), topic);
-            // Update our in-memory store
-            topicMessages.put(topic, refreshedMessages);
-        } else {
-            logger.warn("No messages found during refresh for topic: {}", topic);
+        if (reloadTopic(topic)) {
+            return messageStoreService.values(topic);
         }
-        
-        return refreshedMessages;
+        logger.warn("Refresh of topic {} read nothing, keeping current state", topic);
+        return messageStoreService.values(topic);
     }
 } 
\ No newline at end of file
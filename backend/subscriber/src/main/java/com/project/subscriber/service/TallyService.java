@@ -0,0 +1,107 @@
+package com.project.subscriber.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.subscriber.model.PollResults;
+import com.project.subscriber.model.TopicTally;
+import com.project.subscriber.model.VoteMessage;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps incremental vote counts per topic so results can be served
+ * without walking the raw message history. Each vote is parsed once here
+ * and also handed to the {@link RateService} windows.
+ */
+@Service
+public class TallyService {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RateService rateService;
+    private final Map<String, TopicTally> tallies = new ConcurrentHashMap<>();
+
+    public TallyService(RateService rateService) {
+        this.rateService = rateService;
+    }
+
+    public void recordAll(String topic, List<VoteMessage> messages) {
+        TopicTally tally = tallies.computeIfAbsent(topic, k -> new TopicTally());
+        String[] candidates = new String[messages.size()];
+        for (int i = 0; i < candidates.length; i++) {
+            VoteMessage message = messages.get(i);
+            candidates[i] = candidateOf(message);
+            tally.increment(message.getPartition(), candidates[i]);
+        }
+        rateService.recordAll(topic, messages, candidates);
+    }
+
+    /**
+     * Replaces the tally for a topic with one computed from the given messages
+     * (used when the message history is reloaded from Kafka)
+     */
+    public void rebuild(String topic, List<VoteMessage> messages) {
+        TopicTally tally = new TopicTally();
+        String[] candidates = new String[messages.size()];
+        for (int i = 0; i < candidates.length; i++) {
+            VoteMessage message = messages.get(i);
+            candidates[i] = candidateOf(message);
+            tally.increment(message.getPartition(), candidates[i]);
+        }
+        tallies.put(topic, tally);
+        rateService.rebuild(topic, messages, candidates);
+    }
+
+    /**
+     * Replaces the tally for a topic with previously saved counts
+     */
+    public void restore(String topic, Map<String, Long> counts) {
+        TopicTally tally = new TopicTally();
+        counts.forEach(tally::restore);
+        tallies.put(topic, tally);
+    }
+
+    public void remove(String topic) {
+        tallies.remove(topic);
+        rateService.remove(topic);
+    }
+
+    public PollResults getResults(String topic) {
+        TopicTally tally = tallies.get(topic);
+        if (tally == null) {
+            return new PollResults(topic, 0, Map.of());
+        }
+        return new PollResults(topic, tally.getTotal(), tally.getCounts());
+    }
+
+    /**
+     * Binary votes name their candidate; string votes are parsed
+     */
+    static String candidateOf(VoteMessage message) {
+        return message.getCandidate() != null ? message.getCandidate() : candidateOf(message.getValue());
+    }
+
+    /**
+     * String votes are published as {"name": ..., "vote": ...}; anything else is
+     * treated as a bare vote, matching what the frontend does.
+     */
+    static String candidateOf(String message) {
+        if (message == null) {
+            return "";
+        }
+        if (!message.isEmpty() && message.charAt(0) == '{') {
+            try {
+                JsonNode vote = objectMapper.readTree(message).get("vote");
+                if (vote != null && !vote.isNull()) {
+                    return vote.asText();
+                }
+            } catch (Exception e) {
+                // Not JSON after all, count the raw message
+            }
+        }
+        return message;
+    }
+}
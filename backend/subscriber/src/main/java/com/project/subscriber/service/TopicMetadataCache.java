@@ -0,0 +1,225 @@
+package com.project.subscriber.service;
+
+import com.project.subscriber.model.TopicMetadata;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.Config;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.config.ConfigResource;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Topic names, partition counts and configs, served from memory.
+ *
+ * The topic list is refreshed in the background once it is older than the
+ * TTL, and readers keep getting the previous list meanwhile, so only the
+ * very first read waits for Kafka. Topics this service creates or grows are
+ * recorded right away instead of waiting for the next refresh. Configs are
+ * fetched per topic on first use and kept for the same TTL.
+ */
+@Service
+public class TopicMetadataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicMetadataCache.class);
+
+    private final AdminClient adminClient;
+    private final long ttlNanos;
+    private final Duration adminTimeout;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Snapshot>> refreshing = new AtomicReference<>();
+    // Bumped by local changes, so a refresh that started before one does not undo it
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<String, CachedConfigs> configs = new ConcurrentHashMap<>();
+
+    public TopicMetadataCache(AdminClient adminClient,
+                              @Value("${kafka.metadata.ttl:10s}") Duration ttl,
+                              @Value("${kafka.admin.timeout:10s}") Duration adminTimeout) {
+        this.adminClient = adminClient;
+        this.ttlNanos = ttl.toNanos();
+        this.adminTimeout = adminTimeout;
+    }
+
+    public Set<String> getTopicNames() {
+        return current().partitions.keySet();
+    }
+
+    /**
+     * Partition count of a topic, or -1 if Kafka does not know it. A topic
+     * missing from the cached list is looked up once, in case it was created
+     * elsewhere since the last refresh.
+     */
+    public int getPartitionCount(String topic) {
+        Integer partitions = current().partitions.get(topic);
+        if (partitions != null) {
+            return partitions;
+        }
+        try {
+            TopicDescription description = adminClient.describeTopics(List.of(topic)).allTopicNames()
+                    .get(adminTimeout.toMillis(), TimeUnit.MILLISECONDS).get(topic);
+            record(topic, description.partitions().size());
+            return description.partitions().size();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UnknownTopicOrPartitionException) {
+                return -1;
+            }
+            throw new IllegalStateException("Could not describe topic " + topic, e.getCause());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Could not describe topic " + topic, e);
+        }
+    }
+
+    /**
+     * Partition count and configs of a topic, or null if Kafka does not know it
+     */
+    public TopicMetadata getMetadata(String topic) {
+        int partitions = getPartitionCount(topic);
+        if (partitions < 0) {
+            return null;
+        }
+        return new TopicMetadata(topic, partitions, getConfigs(topic));
+    }
+
+    public Map<String, String> getConfigs(String topic) {
+        CachedConfigs cached = configs.get(topic);
+        if (cached != null && System.nanoTime() - cached.loadedAt < ttlNanos) {
+            return cached.values;
+        }
+        ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, topic);
+        try {
+            Config config = adminClient.describeConfigs(List.of(resource)).all()
+                    .get(adminTimeout.toMillis(), TimeUnit.MILLISECONDS).get(resource);
+            Map<String, String> values = new HashMap<>();
+            config.entries().forEach(entry -> values.put(entry.name(), entry.value()));
+            CachedConfigs loaded = new CachedConfigs(Collections.unmodifiableMap(values), System.nanoTime());
+            configs.put(topic, loaded);
+            return loaded.values;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Could not describe configs of topic " + topic, e);
+        }
+    }
+
+    /**
+     * Records a topic this service just created or grew
+     */
+    public void record(String topic, int partitions) {
+        generation.incrementAndGet();
+        snapshot.updateAndGet(current -> {
+            Map<String, Integer> updated = new HashMap<>(current == null ? Map.of() : current.partitions);
+            updated.merge(topic, partitions, Math::max);
+            return new Snapshot(updated, current == null ? System.nanoTime() : current.loadedAt);
+        });
+        configs.remove(topic);
+    }
+
+    /**
+     * Makes the next read start a refresh, e.g. when another component
+     * reports a topic this one has not seen yet
+     */
+    public void invalidate() {
+        snapshot.updateAndGet(current -> current == null ? null
+                : new Snapshot(current.partitions, System.nanoTime() - ttlNanos - 1));
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            try {
+                return refresh().get(adminTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                logger.warn("Could not load topic metadata from Kafka: {}", e.getMessage());
+                return Snapshot.EMPTY;
+            }
+        }
+        if (System.nanoTime() - current.loadedAt > ttlNanos) {
+            refresh();
+        }
+        return current;
+    }
+
+    /**
+     * Starts a refresh unless one is already running; completes on the admin client's thread
+     */
+    private CompletableFuture<Snapshot> refresh() {
+        CompletableFuture<Snapshot> started = new CompletableFuture<>();
+        CompletableFuture<Snapshot> running = refreshing.compareAndExchange(null, started);
+        if (running != null) {
+            return running;
+        }
+        long startGeneration = generation.get();
+        adminClient.listTopics().names().toCompletionStage()
+                .thenCompose(names -> {
+                    Set<String> topics = new HashSet<>(names);
+                    topics.removeIf(topic -> topic.startsWith("__"));
+                    return adminClient.describeTopics(topics).allTopicNames().toCompletionStage();
+                })
+                .whenComplete((descriptions, error) -> {
+                    refreshing.set(null);
+                    if (error != null) {
+                        logger.warn("Error refreshing topic metadata: {}", error.getMessage());
+                        started.completeExceptionally(error);
+                        return;
+                    }
+                    Map<String, Integer> partitions = new HashMap<>();
+                    descriptions.forEach((topic, description) -> partitions.put(topic, description.partitions().size()));
+                    Snapshot loaded = snapshot.updateAndGet(current -> {
+                        if (current != null && generation.get() != startGeneration) {
+                            // Keep what was recorded locally while the refresh was running
+                            current.partitions.forEach((topic, count) -> partitions.merge(topic, count, Math::max));
+                        }
+                        return new Snapshot(partitions, System.nanoTime());
+                    });
+                    started.complete(loaded);
+                });
+        return started;
+    }
+
+    private static class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), 0);
+
+        private final Map<String, Integer> partitions;
+        private final long loadedAt;
+
+        Snapshot(Map<String, Integer> partitions, long loadedAt) {
+            this.partitions = Collections.unmodifiableMap(partitions);
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static class CachedConfigs {
+
+        private final Map<String, String> values;
+        private final long loadedAt;
+
+        CachedConfigs(Map<String, String> values, long loadedAt) {
+            this.values = values;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.project.subscriber.service;
+
+import com.project.subscriber.model.VoteRecord;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a topic's partitions between two offsets with a small pool of
+ * long-lived consumers. Consumers are assigned partitions directly and
+ * seek to the requested offsets, so no consumer group is ever joined or
+ * left behind on the cluster.
+ */
+public class TopicReader implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicReader.class);
+
+    private final ConsumerFactory<String, VoteRecord> consumerFactory;
+    private final BlockingQueue<Consumer<String, VoteRecord>> idleConsumers;
+    private final AtomicInteger createdConsumers = new AtomicInteger();
+    private final int poolSize;
+    private final Duration pollTimeout;
+    private final Duration maxReadTime;
+
+    public TopicReader(ConsumerFactory<String, VoteRecord> consumerFactory,
+                       int poolSize,
+                       Duration pollTimeout,
+                       Duration maxReadTime) {
+        this.consumerFactory = consumerFactory;
+        this.poolSize = poolSize;
+        this.idleConsumers = new ArrayBlockingQueue<>(poolSize);
+        this.pollTimeout = pollTimeout;
+        this.maxReadTime = maxReadTime;
+    }
+
+    /**
+     * Reads every record currently in the topic
+     */
+    public List<ConsumerRecord<String, VoteRecord>> readAll(String topic) {
+        return read(topic, Collections.emptyMap());
+    }
+
+    /**
+     * Reads from the given per-partition offsets up to the end offsets observed
+     * when the read starts. Partitions missing from {@code fromOffsets} are read
+     * from the beginning. Throws rather than return part of the records when
+     * the read takes longer than max-read-time.
+     */
+    public List<ConsumerRecord<String, VoteRecord>> read(String topic, Map<Integer, Long> fromOffsets) {
+        Consumer<String, VoteRecord> consumer = borrow();
+        boolean healthy = false;
+        try {
+            List<ConsumerRecord<String, VoteRecord>> records = readWith(consumer, topic, fromOffsets);
+            healthy = true;
+            return records;
+        } finally {
+            release(consumer, healthy);
+        }
+    }
+
+    private List<ConsumerRecord<String, VoteRecord>> readWith(Consumer<String, VoteRecord> consumer,
+                                                          String topic,
+                                                          Map<Integer, Long> fromOffsets) {
+        List<ConsumerRecord<String, VoteRecord>> records = new ArrayList<>();
+        List<PartitionInfo> partitionInfos = consumer.partitionsFor(topic, pollTimeout);
+        if (partitionInfos == null || partitionInfos.isEmpty()) {
+            return records;
+        }
+
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (PartitionInfo info : partitionInfos) {
+            partitions.add(new TopicPartition(topic, info.partition()));
+        }
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions, pollTimeout);
+        Map<TopicPartition, Long> startOffsets = consumer.beginningOffsets(partitions, pollTimeout);
+
+        // Only assign partitions that actually have something left to read
+        Map<TopicPartition, Long> seekOffsets = new HashMap<>();
+        Map<TopicPartition, Long> remaining = new HashMap<>();
+        for (TopicPartition partition : partitions) {
+            long start = Math.max(fromOffsets.getOrDefault(partition.partition(), 0L), startOffsets.get(partition));
+            long end = endOffsets.get(partition);
+            if (start < end) {
+                seekOffsets.put(partition, start);
+                remaining.put(partition, end);
+            }
+        }
+        if (remaining.isEmpty()) {
+            return records;
+        }
+
+        consumer.assign(remaining.keySet());
+        seekOffsets.forEach(consumer::seek);
+
+        long deadline = System.nanoTime() + maxReadTime.toNanos();
+        while (!remaining.isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Stopped reading topic " + topic + " after " + maxReadTime
+                        + " with " + remaining.size() + " partitions unfinished");
+            }
+            ConsumerRecords<String, VoteRecord> batch = consumer.poll(pollTimeout);
+            for (ConsumerRecord<String, VoteRecord> record : batch) {
+                Long end = remaining.get(new TopicPartition(record.topic(), record.partition()));
+                if (end != null && record.offset() < end) {
+                    records.add(record);
+                }
+            }
+            remaining.entrySet().removeIf(entry -> consumer.position(entry.getKey(), pollTimeout) >= entry.getValue());
+        }
+        return records;
+    }
+
+    private Consumer<String, VoteRecord> borrow() {
+        Consumer<String, VoteRecord> consumer = idleConsumers.poll();
+        if (consumer != null) {
+            return consumer;
+        }
+        if (createdConsumers.incrementAndGet() <= poolSize) {
+            return consumerFactory.createConsumer();
+        }
+        createdConsumers.decrementAndGet();
+        try {
+            consumer = idleConsumers.poll(maxReadTime.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (consumer == null) {
+            throw new IllegalStateException("No topic reader available");
+        }
+        return consumer;
+    }
+
+    private void release(Consumer<String, VoteRecord> consumer, boolean healthy) {
+        if (healthy) {
+            try {
+                consumer.unsubscribe();
+                if (idleConsumers.offer(consumer)) {
+                    return;
+                }
+            } catch (Exception e) {
+                logger.warn("Discarding topic reader consumer", e);
+            }
+        }
+        createdConsumers.decrementAndGet();
+        try {
+            consumer.close(Duration.ZERO);
+        } catch (Exception e) {
+            logger.warn("Error closing topic reader consumer", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        Consumer<String, VoteRecord> consumer;
+        while ((consumer = idleConsumers.poll()) != null) {
+            consumer.close(Duration.ZERO);
+        }
+    }
+}
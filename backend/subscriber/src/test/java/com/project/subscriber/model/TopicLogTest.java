@@ -0,0 +1,82 @@
+package com.project.subscriber.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopicLogTest {
+
+    private static VoteMessage vote(int partition, long offset) {
+        return new VoteMessage(partition, offset, offset, VoteRecord.ofText("vote-" + partition + "-" + offset));
+    }
+
+    private static List<VoteMessage> votes(int partition, long fromOffset, int count) {
+        List<VoteMessage> votes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            votes.add(vote(partition, fromOffset + i));
+        }
+        return votes;
+    }
+
+    private static List<Long> offsets(MessagePage page) {
+        return page.getMessages().stream().map(VoteMessage::getOffset).toList();
+    }
+
+    @Test
+    void pagesThroughAPartitionByCursor() {
+        TopicLog log = new TopicLog(1000, Long.MAX_VALUE);
+        log.append(votes(0, 0, 5));
+        log.append(votes(1, 0, 3));
+
+        MessagePage first = log.page("poll", 0, -1, 2);
+        assertThat(offsets(first)).containsExactly(0L, 1L);
+        assertThat(first.isHasMore()).isTrue();
+
+        MessagePage last = log.page("poll", 0, first.getNextCursor(), 10);
+        assertThat(offsets(last)).containsExactly(2L, 3L, 4L);
+        assertThat(last.isHasMore()).isFalse();
+
+        MessagePage empty = log.page("poll", 0, last.getNextCursor(), 10);
+        assertThat(empty.getMessages()).isEmpty();
+        assertThat(empty.getNextCursor()).isEqualTo(4L);
+    }
+
+    @Test
+    void cursorBetweenOffsetsResumesAfterIt() {
+        TopicLog log = new TopicLog(1000, Long.MAX_VALUE);
+        log.append(List.of(vote(0, 10), vote(0, 20), vote(0, 30)));
+
+        assertThat(offsets(log.page("poll", 0, 15, 10))).containsExactly(20L, 30L);
+        assertThat(log.page("poll", 7, -1, 10).getMessages()).isEmpty();
+    }
+
+    @Test
+    void evictsOldestAndFlagsTruncatedHistory() {
+        TopicLog log = new TopicLog(20, Long.MAX_VALUE);
+        // Enough to grow and wrap the ring several times
+        for (int batch = 0; batch < 10; batch++) {
+            log.append(votes(0, batch * 7L, 7));
+        }
+
+        assertThat(log.size()).isEqualTo(20);
+        assertThat(log.evictedCount()).isEqualTo(50);
+        MessagePage page = log.page("poll", 0, -1, 100);
+        assertThat(offsets(page)).first().isEqualTo(50L);
+        assertThat(offsets(page)).last().isEqualTo(69L);
+        assertThat(page.isHistoryTruncated()).isTrue();
+        assertThat(log.page("poll", 0, 49, 100).isHistoryTruncated()).isFalse();
+    }
+
+    @Test
+    void replaceAllKeepsOnlyTheNewestMessages() {
+        TopicLog log = new TopicLog(3, Long.MAX_VALUE);
+        log.append(votes(0, 0, 2));
+
+        log.replaceAll(votes(0, 0, 10));
+
+        assertThat(log.values()).containsExactly("vote-0-7", "vote-0-8", "vote-0-9");
+    }
+}
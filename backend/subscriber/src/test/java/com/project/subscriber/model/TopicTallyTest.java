@@ -0,0 +1,82 @@
+package com.project.subscriber.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopicTallyTest {
+
+    @Test
+    void mergesCountsAcrossPartitions() {
+        TopicTally tally = new TopicTally();
+        tally.increment(0, "yes");
+        tally.increment(1, "yes");
+        tally.increment(1, "no");
+
+        assertThat(tally.getCounts()).isEqualTo(Map.of("yes", 2L, "no", 1L));
+        assertThat(tally.getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void addsToRestoredCounts() {
+        TopicTally tally = new TopicTally();
+        tally.restore("yes", 40);
+        tally.restore("no", 2);
+        tally.increment(0, "yes");
+
+        assertThat(tally.getCounts()).isEqualTo(Map.of("yes", 41L, "no", 2L));
+        assertThat(tally.getTotal()).isEqualTo(43);
+    }
+
+    @Test
+    void keepsCountsWhenAShardGrows() {
+        TopicTally tally = new TopicTally();
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j <= i; j++) {
+                tally.increment(3, "candidate-" + i);
+            }
+        }
+
+        Map<String, Long> counts = tally.getCounts();
+        assertThat(counts).hasSize(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(counts.get("candidate-" + i)).isEqualTo(i + 1L);
+        }
+        assertThat(tally.getTotal()).isEqualTo(100 * 101 / 2);
+    }
+
+    @Test
+    void readersNeverSeeCountsGoBackwards() throws Exception {
+        TopicTally tally = new TopicTally();
+        int partitions = 4;
+        int votesPerPartition = 200_000;
+        List<Thread> writers = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            int partition = p;
+            // One writer per partition, as with the Kafka listener
+            writers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < votesPerPartition; i++) {
+                    tally.increment(partition, "candidate-" + (i % 50));
+                }
+            }));
+        }
+
+        long last = 0;
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            long total = tally.getTotal();
+            assertThat(total).isGreaterThanOrEqualTo(last);
+            last = total;
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertThat(tally.getTotal()).isEqualTo((long) partitions * votesPerPartition);
+        assertThat(tally.getCounts()).hasSize(50)
+                .allSatisfy((candidate, count) -> assertThat(count).isEqualTo((long) partitions * votesPerPartition / 50));
+    }
+}
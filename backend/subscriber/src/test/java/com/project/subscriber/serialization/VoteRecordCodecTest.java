@@ -0,0 +1,89 @@
+package com.project.subscriber.serialization;
+
+import com.project.subscriber.model.VoteRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VoteRecordCodecTest {
+
+    private final VoteRecordSerializer serializer = new VoteRecordSerializer();
+    private final VoteRecordDeserializer deserializer = new VoteRecordDeserializer();
+
+    private VoteRecord roundTrip(VoteRecord record) {
+        return deserializer.deserialize("poll", serializer.serialize("poll", record));
+    }
+
+    @Test
+    void binaryVoteRoundTrips() {
+        VoteRecord decoded = roundTrip(new VoteRecord("poll-1", "Alice", "voter-42", 1_700_000_000_000L, 12345));
+
+        assertThat(decoded.isText()).isFalse();
+        assertThat(decoded.getPollId()).isEqualTo("poll-1");
+        assertThat(decoded.getCandidate()).isEqualTo("Alice");
+        assertThat(decoded.getVoterId()).isEqualTo("voter-42");
+        assertThat(decoded.getClientTimestamp()).isEqualTo(1_700_000_000_000L);
+        assertThat(decoded.getLamportTimestamp()).isEqualTo(12345);
+    }
+
+    @Test
+    void edgeValuesRoundTrip() {
+        String longName = "x".repeat(500);
+        VoteRecord decoded = roundTrip(new VoteRecord("ünïcødé 🗳", longName, null, -1, Long.MAX_VALUE));
+
+        assertThat(decoded.getPollId()).isEqualTo("ünïcødé 🗳");
+        assertThat(decoded.getCandidate()).isEqualTo(longName);
+        assertThat(decoded.getVoterId()).isNull();
+        assertThat(decoded.getClientTimestamp()).isEqualTo(-1);
+        assertThat(decoded.getLamportTimestamp()).isEqualTo(Long.MAX_VALUE);
+
+        assertThat(roundTrip(new VoteRecord("p", "c", "v", Long.MIN_VALUE, 0)).getClientTimestamp())
+                .isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    void textVotesPassThroughUnchanged() {
+        String json = "{\"name\":\"voter\",\"vote\":\"Alice\"}";
+
+        assertThat(serializer.serialize("poll", VoteRecord.ofText(json))).isEqualTo(json.getBytes(StandardCharsets.UTF_8));
+        VoteRecord decoded = deserializer.deserialize("poll", json.getBytes(StandardCharsets.UTF_8));
+        assertThat(decoded.isText()).isTrue();
+        assertThat(decoded.getText()).isEqualTo(json);
+    }
+
+    @Test
+    void repeatedNamesDecodeToTheSameCachedString() {
+        VoteRecordCodec codec = new VoteRecordCodec();
+        byte[] first = VoteRecordCodec.encode(new VoteRecord("poll", "Alice", "a", 1, 1));
+        byte[] second = VoteRecordCodec.encode(new VoteRecord("poll", "Alice", "b", 2, 2));
+        byte[] other = VoteRecordCodec.encode(new VoteRecord("poll", "Bob", "c", 3, 3));
+
+        VoteRecord a = codec.decode(first);
+        VoteRecord b = codec.decode(second);
+
+        assertThat(b.getCandidate()).isSameAs(a.getCandidate());
+        assertThat(b.getPollId()).isSameAs(a.getPollId());
+        assertThat(codec.decode(other).getCandidate()).isEqualTo("Bob");
+    }
+
+    @Test
+    void truncatedRecordIsRejected() {
+        byte[] encoded = VoteRecordCodec.encode(new VoteRecord("poll", "Alice", "voter", 1, 1));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+
+        assertThatThrownBy(() -> new VoteRecordCodec().decode(truncated)).isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void newerVersionIsRejected() {
+        byte[] encoded = VoteRecordCodec.encode(new VoteRecord("poll", "Alice", "voter", 1, 1));
+        encoded[1] = VoteRecordCodec.VERSION + 1;
+
+        assertThatThrownBy(() -> new VoteRecordCodec().decode(encoded)).isInstanceOf(SerializationException.class);
+    }
+}
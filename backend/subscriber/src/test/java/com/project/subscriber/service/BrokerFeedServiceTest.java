@@ -0,0 +1,81 @@
+package com.project.subscriber.service;
+
+import com.project.subscriber.model.TopicUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BrokerFeedServiceTest {
+
+    private final BrokerFeedService feed = new BrokerFeedService(3);
+
+    private static TopicUpdate snapshot(long total, Map<String, Long> counts) {
+        return new TopicUpdate("poll", true, total, total, counts, List.of());
+    }
+
+    private static TopicUpdate delta(long base, String... votes) {
+        return new TopicUpdate("poll", false, base, base + votes.length, Map.of("yes", (long) votes.length), List.of(votes));
+    }
+
+    @Test
+    void appliesDeltasOnTopOfSnapshot() {
+        assertThat(feed.apply(snapshot(10, Map.of("yes", 6L, "no", 4L)))).isTrue();
+        assertThat(feed.apply(delta(10, "v1", "v2"))).isTrue();
+
+        assertThat(feed.getResults("poll").getTotalVotes()).isEqualTo(12);
+        assertThat(feed.getResults("poll").getCounts()).isEqualTo(Map.of("yes", 8L, "no", 4L));
+    }
+
+    @Test
+    void asksForSnapshotBeforeTheFirstOne() {
+        assertThat(feed.apply(delta(0, "v1"))).isFalse();
+
+        assertThat(feed.getResults("poll").getTotalVotes()).isZero();
+        assertThat(feed.getRecentVotes("poll")).isEmpty();
+    }
+
+    @Test
+    void skipsReplayedDelta() {
+        feed.apply(snapshot(10, Map.of("yes", 10L)));
+        feed.apply(delta(10, "v1"));
+
+        assertThat(feed.apply(delta(10, "v1"))).isTrue();
+
+        assertThat(feed.getResults("poll").getTotalVotes()).isEqualTo(11);
+        assertThat(feed.getRecentVotes("poll")).containsExactly("v1");
+    }
+
+    @Test
+    void asksForSnapshotOnGapAndKeepsCounts() {
+        feed.apply(snapshot(10, Map.of("yes", 10L)));
+
+        assertThat(feed.apply(delta(12, "v1"))).isFalse();
+        // Overlaps what was applied but goes past it
+        feed.apply(delta(10, "v2"));
+        assertThat(feed.apply(delta(10, "v2", "v3"))).isFalse();
+
+        assertThat(feed.getResults("poll").getTotalVotes()).isEqualTo(11);
+        assertThat(feed.apply(snapshot(20, Map.of("yes", 20L)))).isTrue();
+        assertThat(feed.getResults("poll").getTotalVotes()).isEqualTo(20);
+    }
+
+    @Test
+    void keepsOnlyMostRecentVotes() {
+        feed.apply(snapshot(0, Map.of()));
+        feed.apply(delta(0, "v1", "v2"));
+        feed.apply(delta(2, "v3", "v4"));
+
+        assertThat(feed.getRecentVotes("poll")).containsExactly("v2", "v3", "v4");
+    }
+
+    @Test
+    void removedPollNeedsNewSnapshot() {
+        feed.apply(snapshot(10, Map.of("yes", 10L)));
+        feed.remove("poll");
+
+        assertThat(feed.apply(delta(10, "v1"))).isFalse();
+    }
+}